@@ -0,0 +1,62 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * 등록자/시각 제공 방식(datajpa.audit.mode)별 insert 시간.
+ * entity: 엔티티마다 UUID.randomUUID() + LocalDateTime.now(), transaction: 트랜잭션마다 한 번.
+ * 한 번 실행이 insertCount건 insert (saveAllBatched 한 트랜잭션)
+ * <p>
+ * ./gradlew jmh -PjmhIncludes=AuditOverheadBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+public class AuditOverheadBenchmark {
+
+    @Param({"entity", "transaction"})
+    String auditMode;
+
+    @Param({"100000"})
+    int insertCount;
+
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+    private List<Member> members;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(
+                "datajpa.audit.mode=" + auditMode,
+                "datajpa.statement-budget.enabled=false");
+        memberRepository = context.getBean(MemberRepository.class);
+    }
+
+    @Setup(Level.Invocation)
+    public void prepare() {
+        memberRepository.deleteAllInBatch();
+        members = IntStream.range(0, insertCount)
+                .mapToObj(i -> new Member("member" + i, i % 100))
+                .toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int insert() {
+        return memberRepository.saveAllBatched(members, 1000);
+    }
+}
@@ -0,0 +1,66 @@
+package study.datajpa.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.datajpa.DataJpaApplication;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * 벤치마크용 애플리케이션 컨텍스트.
+ * 인메모리 H2를 사용하고 SQL 로그(p6spy, org.hibernate.SQL)는 끈다.
+ */
+public class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    public static ConfigurableApplicationContext start(String... properties) {
+        return start(WebApplicationType.NONE, properties);
+    }
+
+    // 임의 포트로 톰캣까지 띄운다. 포트는 local.server.port 프로퍼티로 확인
+    public static ConfigurableApplicationContext startWeb(String... properties) {
+        List<String> webProperties = new ArrayList<>(List.of(properties));
+        webProperties.add("server.port=0");
+        return start(WebApplicationType.SERVLET, webProperties.toArray(String[]::new));
+    }
+
+    private static ConfigurableApplicationContext start(WebApplicationType webApplicationType, String... properties) {
+        List<String> defaults = new ArrayList<>(List.of(
+                "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                "spring.jpa.properties.hibernate.format_sql=false",
+                "decorator.datasource.p6spy.enable-logging=false",
+                "logging.level.org.hibernate.SQL=warn",
+                "logging.level.org.hibernate.type=warn"));
+        defaults.addAll(List.of(properties));
+
+        return new SpringApplicationBuilder(DataJpaApplication.class)
+                .web(webApplicationType)
+                .properties(defaults.toArray(String[]::new))
+                .run();
+    }
+
+    // teamCount개 팀에 memberCount명을 고르게 배정, username은 member0 ~ member9 가 반복된다
+    public static void seed(ConfigurableApplicationContext context, int memberCount, int teamCount) {
+        TeamRepository teamRepository = context.getBean(TeamRepository.class);
+        MemberRepository memberRepository = context.getBean(MemberRepository.class);
+
+        List<Team> teams = IntStream.range(0, teamCount)
+                .mapToObj(i -> new Team("team" + i))
+                .toList();
+        teamRepository.saveAllBatched(teams, 100);
+
+        List<Member> members = IntStream.range(0, memberCount)
+                .mapToObj(i -> new Member("member" + (i % 10), i % 100, teams.get(i % teamCount)))
+                .toList();
+        memberRepository.saveAllBatched(members, 100);
+    }
+}
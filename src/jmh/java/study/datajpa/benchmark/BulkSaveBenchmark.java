@@ -0,0 +1,67 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * 건별 save()와 saveAllBatched()의 insert 시간 비교.
+ * save: 호출마다 트랜잭션을 열고 insert 한 번, saveAllBatched: 한 트랜잭션에서 batchSize건씩 JDBC 배치
+ * <p>
+ * ./gradlew jmh -PjmhIncludes=BulkSaveBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+public class BulkSaveBenchmark {
+
+    @Param({"2000"})
+    int insertCount;
+
+    @Param({"100"})
+    int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+    private List<Member> members;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("datajpa.statement-budget.enabled=false");
+        memberRepository = context.getBean(MemberRepository.class);
+    }
+
+    @Setup(Level.Invocation)
+    public void prepare() {
+        memberRepository.deleteAllInBatch();
+        members = IntStream.range(0, insertCount)
+                .mapToObj(i -> new Member("member" + i, i % 100))
+                .toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int save() {
+        for (Member member : members) {
+            memberRepository.save(member);
+        }
+        return members.size();
+    }
+
+    @Benchmark
+    public int saveAllBatched() {
+        return memberRepository.saveAllBatched(members, batchSize);
+    }
+}
@@ -0,0 +1,108 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.retry.OptimisticRetryTemplate;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * 같은 회원들을 동시에 수정할 때 비관적 락(PESSIMISTIC_WRITE)과 낙관적 락(@Version + 재시도) 처리량 비교.
+ * 각 작업은 hotMembers명 중 한 명의 age를 1 올린다. hotMembers가 작을수록 충돌이 많다.
+ * <p>
+ * ./gradlew jmh -PjmhIncludes=MemberContentionBenchmark
+ * 동시 수정 스레드 수는 JMH 옵션 -t 로 바꾼다 (기본 8, 커넥션 풀 크기 10 이하로).
+ * 낙관적 락의 시도/충돌 수는 결과에 보조 카운터(optimistic:attempts, optimistic:conflicts)로 함께 나온다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Threads(8)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MemberContentionBenchmark {
+
+    @Param({"1", "16"})
+    int hotMembers;
+
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+    private TransactionTemplate transactionTemplate;
+    private OptimisticRetryTemplate retryTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(
+                "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+                // 충돌이 많아도 실패하지 않도록 재시도 한도를 넉넉하게
+                "datajpa.optimistic-retry.max-attempts=1000",
+                "datajpa.statement-budget.enabled=false");
+
+        memberRepository = context.getBean(MemberRepository.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        retryTemplate = context.getBean(OptimisticRetryTemplate.class);
+
+        List<Member> members = IntStream.range(0, hotMembers)
+                .mapToObj(i -> new Member("hot" + i, 0))
+                .toList();
+        memberRepository.saveAllBatched(members, 100);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // 스레드별로 세고 JMH가 반복(iteration)마다 모든 스레드의 값을 합쳐서 보고한다
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class RetryCounters {
+        public long attempts;
+        public long conflicts;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            attempts = 0;
+            conflicts = 0;
+        }
+    }
+
+    // select ... for update 로 행 락을 잡고 수정, 다른 스레드는 커밋까지 대기
+    @Benchmark
+    public void pessimistic() {
+        String username = randomHotUsername();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Member member : memberRepository.findLockByUsername(username)) {
+                member.setAge(member.getAge() + 1);
+            }
+        });
+    }
+
+    // 락 없이 읽고 커밋 시 버전 검사, 충돌하면 백오프 후 처음부터 다시 실행
+    @Benchmark
+    public void optimistic(RetryCounters counters) {
+        String username = randomHotUsername();
+        // 충돌하면 콜백이 처음부터 다시 실행되므로 콜백 실행 횟수가 시도 횟수
+        int[] attempts = {0};
+        retryTemplate.executeWithoutResult(status -> {
+            attempts[0]++;
+            for (Member member : memberRepository.findByUsername(username)) {
+                member.setAge(member.getAge() + 1);
+            }
+        });
+        counters.attempts += attempts[0];
+        counters.conflicts += attempts[0] - 1;
+    }
+
+    private String randomHotUsername() {
+        return "hot" + ThreadLocalRandom.current().nextInt(hotMembers);
+    }
+}
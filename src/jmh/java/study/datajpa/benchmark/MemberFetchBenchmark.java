@@ -0,0 +1,143 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 회원 + 팀 조회 전략별 처리량/지연시간/할당률 비교.
+ * 엔티티를 반환하는 전략은 팀 이름까지 읽어서 지연 로딩 비용이 포함되도록 한다.
+ * <p>
+ * ./gradlew jmh -PjmhIncludes=MemberFetchBenchmark
+ * 회원/팀 수는 @Param 값을 바꾸거나 JMH 옵션 -p memberCount=10000 으로 지정한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MemberFetchBenchmark {
+
+    @Param({"1000"})
+    int memberCount;
+
+    @Param({"10"})
+    int teamCount;
+
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+    private TransactionTemplate readOnlyTransaction;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        BenchmarkContext.seed(context, memberCount, teamCount);
+
+        memberRepository = context.getBean(MemberRepository.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // 기준: 지연 로딩 (팀 수만큼 추가 쿼리)
+    @Benchmark
+    public void lazyLoading(Blackhole bh) {
+        readOnlyTransaction.executeWithoutResult(status -> consumeTeams(memberRepository.findAll(), bh));
+    }
+
+    @Benchmark
+    public void fetchJoin(Blackhole bh) {
+        readOnlyTransaction.executeWithoutResult(status -> consumeTeams(memberRepository.findMemberFetchJoin(), bh));
+    }
+
+    @Benchmark
+    public void entityGraph(Blackhole bh) {
+        readOnlyTransaction.executeWithoutResult(status -> consumeTeams(memberRepository.findMemberEntityGraph(), bh));
+    }
+
+    // Member.all 네임드 엔티티 그래프, username 하나에 해당하는 회원(전체의 1/10)만 조회
+    @Benchmark
+    public void namedEntityGraphByUsername(Blackhole bh) {
+        readOnlyTransaction.executeWithoutResult(status -> consumeTeams(memberRepository.findEntityGraphByUsername("member0"), bh));
+    }
+
+    @Benchmark
+    public List<MemberDto> constructorProjection() {
+        return readOnlyTransaction.execute(status -> memberRepository.findMemberDto());
+    }
+
+    @Benchmark
+    public List<UsernameOnly> interfaceProjection() {
+        return readOnlyTransaction.execute(status -> memberRepository.findProjectionsByUsername("member0"));
+    }
+
+    @Benchmark
+    public List<UsernameOnlyDto> classProjection() {
+        return readOnlyTransaction.execute(status -> memberRepository.findProjectionsByUsername("member0", UsernameOnlyDto.class));
+    }
+
+    // 클래스 기반 Projection과 같은 경로 (생성자 호출), 레코드는 접근자도 컴파일 시점에 생성된다
+    @Benchmark
+    public List<UsernameRecord> recordProjection() {
+        return readOnlyTransaction.execute(status -> memberRepository.findProjectionsByUsername("member0", UsernameRecord.class));
+    }
+
+    @Benchmark
+    public void nestedProjection(Blackhole bh) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            for (NestedClosedProjections projection : memberRepository.findProjectionsByUsername("member0", NestedClosedProjections.class)) {
+                bh.consume(projection.getTeam().getName());
+            }
+        });
+    }
+
+    // nestedProjection과 같은 결과를 생성자 표현식 레코드로
+    @Benchmark
+    public void nestedRecordProjection(Blackhole bh) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            for (MemberTeamRecord record : memberRepository.findMemberTeamRecordsByUsername("member0")) {
+                bh.consume(record.teamName());
+            }
+        });
+    }
+
+    // count 쿼리 포함
+    @Benchmark
+    public void nativeProjection(Blackhole bh) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            for (MemberProjection projection : memberRepository.findByNativeProjection(PageRequest.of(0, memberCount))) {
+                bh.consume(projection.getTeamName());
+            }
+        });
+    }
+
+    // nativeProjection과 같은 결과를 생성자 표현식 레코드로, count 쿼리 포함
+    @Benchmark
+    public void recordPage(Blackhole bh) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            for (MemberTeamRecord record : memberRepository.findMemberTeamRecords(PageRequest.of(0, memberCount))) {
+                bh.consume(record.teamName());
+            }
+        });
+    }
+
+    private void consumeTeams(List<Member> members, Blackhole bh) {
+        for (Member member : members) {
+            bh.consume(member.getTeam().getName());
+        }
+    }
+}
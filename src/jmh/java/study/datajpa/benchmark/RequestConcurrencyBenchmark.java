@@ -0,0 +1,68 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * 플랫폼 스레드 모드와 가상 스레드 모드(datajpa.virtual-threads.enabled)의 부하 비교.
+ * 한 번의 측정 단위는 concurrentRequests 건의 /members 요청을 동시에 보내고 모두 끝날 때까지 기다리는 것이다.
+ * 가상 스레드 모드는 Java 21 이상에서 실행해야 의미가 있다 (Java 17에서는 동시성 제한만 적용됨).
+ * <p>
+ * ./gradlew jmh -PjmhIncludes=RequestConcurrencyBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class RequestConcurrencyBenchmark {
+
+    @Param({"false", "true"})
+    boolean virtualThreads;
+
+    @Param({"1000"})
+    int concurrentRequests;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.startWeb(
+                "datajpa.virtual-threads.enabled=" + virtualThreads,
+                "datajpa.statement-budget.enabled=false");
+        BenchmarkContext.seed(context, 1000, 10);
+
+        String port = context.getEnvironment().getProperty("local.server.port");
+        client = HttpClient.newHttpClient();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/members?size=20")).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // 성공(200) 응답 수를 반환, 503/500은 실패로 센다
+    @Benchmark
+    public long burst() {
+        List<CompletableFuture<HttpResponse<Void>>> responses = IntStream.range(0, concurrentRequests)
+                .mapToObj(i -> client.sendAsync(request, HttpResponse.BodyHandlers.discarding()))
+                .toList();
+        return responses.stream()
+                .map(CompletableFuture::join)
+                .filter(response -> response.statusCode() == 200)
+                .count();
+    }
+}
@@ -2,23 +2,17 @@ package study.datajpa;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.context.annotation.Bean;
-import org.springframework.data.domain.AuditorAware;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import study.datajpa.audit.AuditConfig;
 
-import java.util.Optional;
-import java.util.UUID;
-
-@EnableJpaAuditing
+// 등록자/시각 제공자는 AuditConfig (datajpa.audit.mode)
+@EnableJpaAuditing(dateTimeProviderRef = AuditConfig.DATE_TIME_PROVIDER)
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class DataJpaApplication {
 
     public static void main(String[] args) {
         SpringApplication.run(DataJpaApplication.class, args);
     }
-
-    @Bean
-    public AuditorAware<String> auditorProvider() {
-        return () -> Optional.of(UUID.randomUUID().toString());
-    }
 }
@@ -0,0 +1,50 @@
+package study.datajpa.audit;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.auditing.CurrentDateTimeProvider;
+import org.springframework.data.auditing.DateTimeProvider;
+import org.springframework.data.domain.AuditorAware;
+
+import java.time.Clock;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * 등록자/수정자, 등록/수정 시각 제공자 (@EnableJpaAuditing 참고).
+ * datajpa.audit.mode
+ * - entity (기본): 엔티티마다 UUID.randomUUID()와 현재 시각
+ * - transaction: 트랜잭션마다 한 번만 구한 값 (TransactionScopedAuditing)
+ */
+@Configuration(proxyBeanMethods = false)
+public class AuditConfig {
+
+    public static final String DATE_TIME_PROVIDER = "auditingDateTimeProvider";
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(name = "datajpa.audit.mode", havingValue = "entity", matchIfMissing = true)
+    static class PerEntity {
+
+        @Bean
+        public AuditorAware<String> auditorProvider() {
+            return () -> Optional.of(UUID.randomUUID().toString());
+        }
+
+        @Bean(DATE_TIME_PROVIDER)
+        public DateTimeProvider auditingDateTimeProvider() {
+            return CurrentDateTimeProvider.INSTANCE;
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(name = "datajpa.audit.mode", havingValue = "transaction")
+    static class PerTransaction {
+
+        // AuditorAware와 DateTimeProvider를 함께 제공한다
+        @Bean(DATE_TIME_PROVIDER)
+        public TransactionScopedAuditing auditingDateTimeProvider() {
+            return new TransactionScopedAuditing(() -> FastUuid.randomUuid().toString(), Clock.systemDefaultZone());
+        }
+    }
+}
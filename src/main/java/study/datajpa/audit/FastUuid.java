@@ -0,0 +1,22 @@
+package study.datajpa.audit;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * ThreadLocalRandom 기반 UUID(버전 4).
+ * UUID.randomUUID()는 공유 SecureRandom을 사용해서 동시에 많이 호출하면 경합이 생긴다.
+ * 예측 불가능해야 하는 값(토큰, 비밀번호 재설정 키 등)에는 쓰지 않는다.
+ */
+public final class FastUuid {
+
+    private FastUuid() {
+    }
+
+    public static UUID randomUuid() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long msb = (random.nextLong() & ~0xF000L) | 0x4000L; // version 4
+        long lsb = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L; // IETF variant
+        return new UUID(msb, lsb);
+    }
+}
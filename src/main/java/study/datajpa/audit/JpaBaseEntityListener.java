@@ -0,0 +1,40 @@
+package study.datajpa.audit;
+
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.auditing.DateTimeProvider;
+import org.springframework.stereotype.Component;
+import study.datajpa.entity.JpaBaseEntity;
+
+import java.time.LocalDateTime;
+
+/**
+ * JpaBaseEntity의 등록/수정 시각을 감사 시각 제공자({@link AuditConfig#DATE_TIME_PROVIDER})에서 받는다.
+ * 스프링 빈으로 주입받기 때문에 애플리케이션 컨텍스트마다 자기 설정(datajpa.audit.mode)의 시각을 쓴다.
+ */
+@Component
+public class JpaBaseEntityListener {
+
+    private final DateTimeProvider dateTimeProvider;
+
+    public JpaBaseEntityListener(@Qualifier(AuditConfig.DATE_TIME_PROVIDER) DateTimeProvider dateTimeProvider) {
+        this.dateTimeProvider = dateTimeProvider;
+    }
+
+    @PrePersist
+    public void prePersist(JpaBaseEntity entity) {
+        entity.prePersist(now());
+    }
+
+    @PreUpdate
+    public void preUpdate(JpaBaseEntity entity) {
+        entity.preUpdate(now());
+    }
+
+    private LocalDateTime now() {
+        return dateTimeProvider.getNow()
+                .map(LocalDateTime::from)
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,82 @@
+package study.datajpa.audit;
+
+import org.springframework.data.auditing.DateTimeProvider;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAccessor;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * 등록자/수정자와 등록/수정 시각을 트랜잭션마다 한 번만 구해서 그 트랜잭션의 모든 엔티티에 같은 값을 쓴다.
+ * 벌크 insert에서 엔티티마다 auditor 조회와 LocalDateTime.now()를 반복하지 않는다.
+ * 같은 트랜잭션에서 등록 후 수정해도 수정 시각은 트랜잭션 시작 시점 값 그대로다.
+ * 트랜잭션 밖에서는 호출할 때마다 새로 구한다.
+ */
+public class TransactionScopedAuditing implements AuditorAware<String>, DateTimeProvider {
+
+    private final Supplier<String> auditorSource;
+    private final Clock clock;
+
+    public TransactionScopedAuditing(Supplier<String> auditorSource, Clock clock) {
+        this.auditorSource = auditorSource;
+        this.clock = clock;
+    }
+
+    @Override
+    public Optional<String> getCurrentAuditor() {
+        return Optional.of(current().auditor());
+    }
+
+    @Override
+    public Optional<TemporalAccessor> getNow() {
+        return Optional.of(current().now());
+    }
+
+    public LocalDateTime now() {
+        return current().now();
+    }
+
+    private Stamp current() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return newStamp();
+        }
+        Stamp stamp = (Stamp) TransactionSynchronizationManager.getResource(this);
+        if (stamp == null) {
+            stamp = newStamp();
+            TransactionSynchronizationManager.bindResource(this, stamp);
+            TransactionSynchronizationManager.registerSynchronization(new StampSynchronization(this, stamp));
+        }
+        return stamp;
+    }
+
+    private Stamp newStamp() {
+        return new Stamp(auditorSource.get(), LocalDateTime.now(clock));
+    }
+
+    private record Stamp(String auditor, LocalDateTime now) {
+    }
+
+    // REQUIRES_NEW로 트랜잭션이 중단되면 바깥 트랜잭션 값이 안쪽 트랜잭션에 보이지 않게 풀어 둔다
+    private record StampSynchronization(Object key, Stamp stamp) implements TransactionSynchronization {
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(key);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(key, stamp);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(key);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package study.datajpa.bulk;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import jakarta.persistence.metamodel.EntityType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.auditing.DateTimeProvider;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.audit.AuditConfig;
+import study.datajpa.entity.BulkUpdateChunk;
+import study.datajpa.repository.BulkUpdateChunkRepository;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 벌크 업데이트 JPQL을 식별자 구간으로 나눠서 여러 작업자 스레드에서 병렬로 실행한다.
+ * <p>
+ * 구간마다 별도 트랜잭션(REQUIRES_NEW)으로 실행하고, 같은 트랜잭션에서 완료 기록({@link BulkUpdateChunk})을 남긴다.
+ * 한 구간이 실패하면 새 구간은 시작하지 않고, 같은 작업 이름으로 다시 실행하면 완료 기록이 없는 구간만 실행한다.
+ * 구간 경계는 chunkSize의 배수로 고정되므로 이어서 실행할 때도 같은 chunkSize를 써야 한다.
+ * <p>
+ * 벌크 연산은 영속성 컨텍스트를 거치지 않으므로, 호출한 쪽에서 이미 조회한 엔티티는 갱신되지 않는다.
+ */
+@Slf4j
+@Component
+public class BulkUpdateEngine {
+
+    private final EntityManager em;
+    private final BulkUpdateChunkRepository chunkRepository;
+    private final BulkUpdateProperties properties;
+    private final DateTimeProvider dateTimeProvider;
+    private final TransactionTemplate chunkTransaction;
+    private final TransactionTemplate readTransaction;
+    // 작업 이름별 마지막 실행 진행 상황
+    private final Map<String, BulkUpdateProgress> progresses = new ConcurrentHashMap<>();
+
+    public BulkUpdateEngine(EntityManager em, BulkUpdateChunkRepository chunkRepository,
+                            PlatformTransactionManager transactionManager, BulkUpdateProperties properties,
+                            @Qualifier(AuditConfig.DATE_TIME_PROVIDER) DateTimeProvider dateTimeProvider) {
+        this.em = em;
+        this.chunkRepository = chunkRepository;
+        this.properties = properties;
+        this.dateTimeProvider = dateTimeProvider;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+    }
+
+    public BulkUpdateProgress execute(BulkUpdateJob job) {
+        long chunkSize = job.getChunkSize() > 0 ? job.getChunkSize() : properties.getChunkSize();
+        Set<Long> completedFromIds = completedFromIds(job.getName(), chunkSize);
+        List<long[]> pending = new ArrayList<>();
+        int totalChunks = 0;
+        for (long[] range : ranges(job.getEntityClass(), chunkSize)) {
+            totalChunks++;
+            if (!completedFromIds.contains(range[0])) {
+                pending.add(range);
+            }
+        }
+
+        BulkUpdateProgress progress = new BulkUpdateProgress(job.getName(), totalChunks, totalChunks - pending.size());
+        progresses.compute(job.getName(), (name, previous) -> {
+            if (previous != null && !previous.isFinished()) {
+                throw new IllegalStateException("이미 실행 중인 벌크 업데이트 작업입니다: " + name);
+            }
+            return progress;
+        });
+        log.info("벌크 업데이트 시작: {}", progress);
+
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        int logEvery = Math.max(1, pending.size() / 20);
+        int workers = Math.max(1, Math.min(properties.getWorkers(), pending.size()));
+        ExecutorService executor = Executors.newFixedThreadPool(workers,
+                new CustomizableThreadFactory("bulk-update-" + job.getName() + "-"));
+        try {
+            List<Future<?>> futures = new ArrayList<>(pending.size());
+            for (long[] range : pending) {
+                futures.add(executor.submit(() -> executeChunk(job, range[0], range[1], progress, failure, logEvery)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure.compareAndSet(null, e);
+            executor.shutdownNow();
+        } catch (ExecutionException e) {
+            failure.compareAndSet(null, e.getCause());
+        } finally {
+            executor.shutdown();
+            progress.finish();
+        }
+
+        log.info("벌크 업데이트 종료: {}", progress);
+        if (failure.get() != null) {
+            throw new BulkUpdateException(progress, failure.get());
+        }
+        return progress;
+    }
+
+    public Optional<BulkUpdateProgress> getProgress(String jobName) {
+        return Optional.ofNullable(progresses.get(jobName));
+    }
+
+    // 완료 기록을 지워서 처음부터 다시 실행할 수 있게 한다
+    public int reset(String jobName) {
+        progresses.remove(jobName);
+        return chunkRepository.deleteByJobName(jobName);
+    }
+
+    private void executeChunk(BulkUpdateJob job, long fromId, long toId, BulkUpdateProgress progress,
+                              AtomicReference<Throwable> failure, int logEvery) {
+        // 다른 구간이 실패하면 남은 구간은 다음 실행으로 넘긴다
+        if (failure.get() != null) {
+            return;
+        }
+        try {
+            Integer rows = chunkTransaction.execute(status -> {
+                Query query = em.createQuery(job.getJpql());
+                job.getParameters().forEach(query::setParameter);
+                query.setParameter(BulkUpdateJob.FROM_ID, fromId);
+                query.setParameter(BulkUpdateJob.TO_ID, toId);
+                int updated = query.executeUpdate();
+                chunkRepository.save(new BulkUpdateChunk(job.getName(), fromId, toId, updated, now()));
+                return updated;
+            });
+            progress.chunkCompleted(rows);
+            if (progress.getCompletedChunks() % logEvery == 0) {
+                log.info("벌크 업데이트 진행: {}", progress);
+            }
+        } catch (RuntimeException e) {
+            progress.chunkFailed();
+            failure.compareAndSet(null, e);
+            log.warn("벌크 업데이트 구간 실패 [{}] {} ~ {}", job.getName(), fromId, toId, e);
+        }
+    }
+
+    private LocalDateTime now() {
+        return dateTimeProvider.getNow()
+                .map(LocalDateTime::from)
+                .orElseThrow();
+    }
+
+    private Set<Long> completedFromIds(String jobName, long chunkSize) {
+        Set<Long> fromIds = new HashSet<>();
+        for (BulkUpdateChunk chunk : chunkRepository.findByJobName(jobName)) {
+            if (chunk.getToId() - chunk.getFromId() + 1 != chunkSize) {
+                throw new IllegalArgumentException("이전 실행과 구간 크기가 다릅니다. job=" + jobName
+                        + ", 이전=" + (chunk.getToId() - chunk.getFromId() + 1) + ", 요청=" + chunkSize);
+            }
+            fromIds.add(chunk.getFromId());
+        }
+        return fromIds;
+    }
+
+    // [min, max] 식별자를 chunkSize 배수 경계로 나눈다. 테이블이 비어 있으면 빈 목록
+    private List<long[]> ranges(Class<?> entityClass, long chunkSize) {
+        EntityType<?> entityType = em.getMetamodel().entity(entityClass);
+        String idName = entityType.getId(entityType.getIdType().getJavaType()).getName();
+        String jpql = "select min(e." + idName + "), max(e." + idName + ") from " + entityType.getName() + " e";
+        Object[] minMax = readTransaction.execute(status -> (Object[]) em.createQuery(jpql).getSingleResult());
+
+        List<long[]> ranges = new ArrayList<>();
+        if (minMax == null || minMax[0] == null) {
+            return ranges;
+        }
+        long min = ((Number) minMax[0]).longValue();
+        long max = ((Number) minMax[1]).longValue();
+        for (long from = Math.floorDiv(min, chunkSize) * chunkSize; from <= max; from += chunkSize) {
+            ranges.add(new long[]{from, from + chunkSize - 1});
+        }
+        return ranges;
+    }
+}
@@ -0,0 +1,14 @@
+package study.datajpa.bulk;
+
+import lombok.Getter;
+
+@Getter
+public class BulkUpdateException extends RuntimeException {
+
+    private final BulkUpdateProgress progress;
+
+    public BulkUpdateException(BulkUpdateProgress progress, Throwable cause) {
+        super("벌크 업데이트가 중단되었습니다. 같은 작업 이름으로 다시 실행하면 남은 구간부터 이어서 처리합니다: " + progress, cause);
+        this.progress = progress;
+    }
+}
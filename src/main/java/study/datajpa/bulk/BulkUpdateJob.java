@@ -0,0 +1,55 @@
+package study.datajpa.bulk;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 구간으로 나눠 실행할 벌크 업데이트 JPQL.
+ * JPQL에는 식별자 구간 파라미터 :fromId, :toId 조건이 있어야 한다 (양 끝 포함).
+ * <pre>
+ * update Member m set m.age = m.age + 1, m.version = m.version + 1
+ * where m.age >= :age and m.id between :fromId and :toId
+ * </pre>
+ * 벌크 연산은 @Version을 올려 주지 않으므로 버전 컬럼이 있는 엔티티는 JPQL에서 직접 올려야 한다
+ * (낙관적 락과 목록 ETag가 변경을 알아챈다).
+ * 같은 이름으로 다시 실행하면 이미 완료된 구간은 건너뛴다.
+ */
+@Getter
+public class BulkUpdateJob {
+
+    public static final String FROM_ID = "fromId";
+    public static final String TO_ID = "toId";
+
+    private final String name;
+    private final Class<?> entityClass;
+    private final String jpql;
+    private final Map<String, Object> parameters = new LinkedHashMap<>();
+    // 0이면 datajpa.bulk-update.chunk-size 사용
+    private long chunkSize;
+
+    public BulkUpdateJob(String name, Class<?> entityClass, String jpql) {
+        if (!jpql.contains(":" + FROM_ID) || !jpql.contains(":" + TO_ID)) {
+            throw new IllegalArgumentException("벌크 업데이트 JPQL에 :fromId, :toId 구간 조건이 없습니다: " + jpql);
+        }
+        this.name = name;
+        this.entityClass = entityClass;
+        this.jpql = jpql;
+    }
+
+    public BulkUpdateJob parameter(String name, Object value) {
+        parameters.put(name, value);
+        return this;
+    }
+
+    public BulkUpdateJob chunkSize(long chunkSize) {
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    public Map<String, Object> getParameters() {
+        return Collections.unmodifiableMap(parameters);
+    }
+}
@@ -0,0 +1,78 @@
+package study.datajpa.bulk;
+
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 실행 중인 벌크 업데이트 작업의 진행 상황. 작업자 스레드들이 동시에 갱신한다.
+ */
+public class BulkUpdateProgress {
+
+    @Getter
+    private final String jobName;
+    @Getter
+    private final int totalChunks;
+    @Getter
+    private final int skippedChunks;
+    private final AtomicInteger completedChunks = new AtomicInteger();
+    private final AtomicInteger failedChunks = new AtomicInteger();
+    private final AtomicLong rowsAffected = new AtomicLong();
+    private final long startNanos = System.nanoTime();
+    private volatile long endNanos;
+
+    BulkUpdateProgress(String jobName, int totalChunks, int skippedChunks) {
+        this.jobName = jobName;
+        this.totalChunks = totalChunks;
+        this.skippedChunks = skippedChunks;
+    }
+
+    void chunkCompleted(int rows) {
+        rowsAffected.addAndGet(rows);
+        completedChunks.incrementAndGet();
+    }
+
+    void chunkFailed() {
+        failedChunks.incrementAndGet();
+    }
+
+    void finish() {
+        endNanos = System.nanoTime();
+    }
+
+    // 이번 실행에서 완료한 구간 수 (이전 실행에서 완료되어 건너뛴 구간 제외)
+    public int getCompletedChunks() {
+        return completedChunks.get();
+    }
+
+    public int getFailedChunks() {
+        return failedChunks.get();
+    }
+
+    public long getRowsAffected() {
+        return rowsAffected.get();
+    }
+
+    public boolean isFinished() {
+        return endNanos != 0;
+    }
+
+    public Duration getElapsed() {
+        long end = isFinished() ? endNanos : System.nanoTime();
+        return Duration.ofNanos(end - startNanos);
+    }
+
+    public double getRowsPerSecond() {
+        long nanos = getElapsed().toNanos();
+        return nanos == 0 ? 0 : getRowsAffected() * 1_000_000_000.0 / nanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[%s] %d/%d chunks (skipped %d, failed %d), %d rows, %.1f rows/s",
+                jobName, skippedChunks + getCompletedChunks(), totalChunks, skippedChunks, getFailedChunks(),
+                getRowsAffected(), getRowsPerSecond());
+    }
+}
@@ -0,0 +1,15 @@
+package study.datajpa.bulk;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "datajpa.bulk-update")
+public class BulkUpdateProperties {
+    // 동시에 실행할 구간 수 (작업자마다 커넥션을 하나씩 쓰므로 커넥션 풀 크기보다 작게)
+    private int workers = 4;
+    // 한 트랜잭션에서 처리할 식별자 구간 크기
+    private long chunkSize = 10_000;
+}
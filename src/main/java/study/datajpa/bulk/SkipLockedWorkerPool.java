@@ -0,0 +1,105 @@
+package study.datajpa.bulk;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * 여러 작업자가 잠기지 않은 행을 선점(SKIP LOCKED)해서 작업 대상이 빌 때까지 처리한다.
+ * <p>
+ * 작업자는 트랜잭션 하나에서 행을 batchSize개 선점하고, 처리한 뒤 커밋해서 락을 푼다.
+ * 선점 쿼리는 다른 트랜잭션이 잠근 행을 건너뛰어야 하고 (예: {@code MemberRepository.claimByAgeLessThan}),
+ * 처리한 행은 더 이상 선점 조건에 맞지 않게 바꿔야 한다. 그렇지 않으면 같은 행을 계속 다시 선점한다.
+ * 작업자가 실패하면 그 트랜잭션의 행은 롤백되어 다음 실행에서 다시 선점된다.
+ */
+@Slf4j
+@Component
+public class SkipLockedWorkerPool {
+
+    private final TransactionTemplate transactionTemplate;
+    private final WorkerPoolProperties properties;
+
+    public SkipLockedWorkerPool(PlatformTransactionManager transactionManager, WorkerPoolProperties properties) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.properties = properties;
+    }
+
+    /**
+     * @param claimer   선점할 최대 행 수를 받아 잠근 행을 반환한다. 빈 목록이면 작업자가 종료된다
+     * @param processor 선점한 행마다 같은 트랜잭션에서 호출된다
+     */
+    public <T> WorkerPoolResult drain(IntFunction<List<T>> claimer, Consumer<? super T> processor) {
+        int workers = properties.getWorkers();
+        int batchSize = properties.getBatchSize();
+        LongAdder processed = new LongAdder();
+        LongAdder batches = new LongAdder();
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        long start = System.nanoTime();
+
+        ExecutorService executor = Executors.newFixedThreadPool(workers, new CustomizableThreadFactory("skip-locked-worker-"));
+        try {
+            List<Future<?>> futures = new ArrayList<>(workers);
+            for (int i = 0; i < workers; i++) {
+                futures.add(executor.submit(() -> {
+                    try {
+                        while (failure.get() == null) {
+                            Integer claimed = transactionTemplate.execute(status -> {
+                                List<T> rows = claimer.apply(batchSize);
+                                rows.forEach(processor);
+                                return rows.size();
+                            });
+                            if (claimed == null || claimed == 0) {
+                                return;
+                            }
+                            processed.add(claimed);
+                            batches.increment();
+                        }
+                    } catch (RuntimeException e) {
+                        // 실패한 작업자가 바로 알려야 다른 작업자가 진행 중인 트랜잭션까지만 처리하고 멈춘다
+                        // (대기 중인 메인 스레드는 앞 작업자의 Future에 막혀 있을 수 있다)
+                        failure.compareAndSet(null, e);
+                        throw e;
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    RuntimeException cause = e.getCause() instanceof RuntimeException re
+                            ? re : new IllegalStateException(e.getCause());
+                    failure.compareAndSet(null, cause);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+            throw new IllegalStateException("작업자 대기 중 인터럽트되었습니다", e);
+        } finally {
+            executor.shutdown();
+        }
+
+        WorkerPoolResult result = new WorkerPoolResult(workers, processed.sum(), batches.sum(),
+                Duration.ofNanos(System.nanoTime() - start));
+        if (failure.get() != null) {
+            log.warn("작업자 실패로 중단: 처리 {}건", result.getProcessed());
+            throw failure.get();
+        }
+        log.info("작업 완료: 작업자 {}명, {}건, {} 트랜잭션, {} rows/s",
+                workers, result.getProcessed(), result.getBatches(), String.format("%.1f", result.getRowsPerSecond()));
+        return result;
+    }
+}
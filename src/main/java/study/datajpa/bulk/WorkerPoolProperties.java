@@ -0,0 +1,15 @@
+package study.datajpa.bulk;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "datajpa.worker-pool")
+public class WorkerPoolProperties {
+    // 작업자마다 커넥션을 하나씩 쓰므로 커넥션 풀 크기보다 작게
+    private int workers = 4;
+    // 한 트랜잭션에서 선점해서 처리할 행 수
+    private int batchSize = 50;
+}
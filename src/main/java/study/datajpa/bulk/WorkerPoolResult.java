@@ -0,0 +1,26 @@
+package study.datajpa.bulk;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+@Getter
+public class WorkerPoolResult {
+    private final int workers;
+    private final long processed;
+    // 한 건 이상 선점한 트랜잭션 수
+    private final long batches;
+    private final Duration elapsed;
+
+    public WorkerPoolResult(int workers, long processed, long batches, Duration elapsed) {
+        this.workers = workers;
+        this.processed = processed;
+        this.batches = batches;
+        this.elapsed = elapsed;
+    }
+
+    public double getRowsPerSecond() {
+        long nanos = elapsed.toNanos();
+        return nanos == 0 ? 0 : processed * 1_000_000_000.0 / nanos;
+    }
+}
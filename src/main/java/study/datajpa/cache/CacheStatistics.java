@@ -0,0 +1,67 @@
+package study.datajpa.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Set;
+
+/**
+ * 2차 캐시 영역별 적중/실패/적재 건수(Hibernate 통계)와 제거 건수(JCache 통계)를 모아서 보여준다.
+ * hibernate.generate_statistics 가 꺼져 있으면 Hibernate 쪽 건수는 0으로 나온다.
+ */
+@Component
+@RequiredArgsConstructor
+public class CacheStatistics {
+
+    private final EntityManagerFactory emf;
+
+    // 엔티티/컬렉션 캐시 영역
+    public CacheRegionStats region(String regionName) {
+        return toStats(regionName, statistics().getDomainDataRegionStatistics(regionName));
+    }
+
+    // 쿼리 결과 캐시 영역
+    public CacheRegionStats queryRegion(String regionName) {
+        return toStats(regionName, statistics().getQueryRegionStatistics(regionName));
+    }
+
+    private Statistics statistics() {
+        return emf.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private CacheRegionStats toStats(String regionName, CacheRegionStatistics region) {
+        if (region == null) {
+            throw new IllegalArgumentException("Unknown cache region: " + regionName);
+        }
+        return new CacheRegionStats(
+                regionName,
+                region.getHitCount(),
+                region.getMissCount(),
+                region.getPutCount(),
+                evictionCount(regionName),
+                region.getElementCountInMemory());
+    }
+
+    private long evictionCount(String cacheName) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName pattern = new ObjectName("javax.cache:type=CacheStatistics,CacheManager=*,Cache=" + cacheName);
+            Set<ObjectName> names = server.queryNames(pattern, null);
+            long evictions = 0;
+            for (ObjectName name : names) {
+                evictions += (Long) server.getAttribute(name, "CacheEvictions");
+            }
+            return evictions;
+        } catch (JMException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package study.datajpa.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import study.datajpa.repository.TeamRepository;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "datajpa.cache.team.warm-up", havingValue = "true")
+public class TeamCacheWarmer implements ApplicationRunner {
+
+    private final TeamRepository teamRepository;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        // 쿼리로 조회한 엔티티도 2차 캐시에 적재된다 (CacheMode.NORMAL)
+        int count = teamRepository.findAll().size();
+        log.info("Team 2차 캐시 워밍업 완료: {}건", count);
+    }
+}
@@ -0,0 +1,57 @@
+package study.datajpa.config;
+
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.task.TaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import study.datajpa.repository.InClauseProperties;
+
+/**
+ * 리포지토리의 @Async("repositoryExecutor") 메서드를 실행하는 전용 스레드 풀.
+ * 각 호출은 실행 스레드에서 리포지토리 기본 트랜잭션과 EntityManager를 새로 열고 닫기 때문에
+ * 반환된 엔티티는 준영속 상태다. 지연 로딩이 필요한 연관관계는 쿼리에서 함께 조회해야 한다.
+ */
+@EnableAsync
+@Configuration
+public class AsyncConfig {
+
+    public static final String REPOSITORY_EXECUTOR = "repositoryExecutor";
+    public static final String IN_CLAUSE_EXECUTOR = "inClauseExecutor";
+
+    @Bean(REPOSITORY_EXECUTOR)
+    public ThreadPoolTaskExecutor repositoryExecutor(AsyncRepositoryProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("repository-");
+        executor.setCorePoolSize(properties.getPoolSize());
+        executor.setMaxPoolSize(properties.getPoolSize());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    // findByNamesChunked의 조각 조회 전용 스레드 풀
+    // repositoryExecutor를 같이 쓰면 그 풀의 스레드에서 호출했을 때 자기 조각이 대기열에서 기다리느라 멈출 수 있다
+    // 조각 작업은 다른 작업을 기다리지 않으므로 대기열은 제한하지 않는다
+    @Bean(IN_CLAUSE_EXECUTOR)
+    public ThreadPoolTaskExecutor inClauseExecutor(InClauseProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("in-clause-");
+        executor.setCorePoolSize(Math.max(1, properties.getParallelism()));
+        executor.setMaxPoolSize(Math.max(1, properties.getParallelism()));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    // Executor 빈을 직접 등록하면 스프링 부트의 기본 applicationTaskExecutor가 등록되지 않으므로
+    // MVC 비동기 처리(StreamingResponseBody, CompletableFuture 반환)와 기본 @Async용으로 같은 설정을 다시 등록한다
+    @Lazy
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    public ThreadPoolTaskExecutor applicationTaskExecutor(TaskExecutorBuilder builder) {
+        return builder.build();
+    }
+}
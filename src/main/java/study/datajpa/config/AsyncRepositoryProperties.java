@@ -0,0 +1,15 @@
+package study.datajpa.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "datajpa.async")
+public class AsyncRepositoryProperties {
+    // 비동기 리포지토리 조회 스레드 수 (커넥션 풀 크기를 넘기지 않도록)
+    private int poolSize = 4;
+    // 대기열이 가득 차면 TaskRejectedException으로 즉시 실패
+    private int queueCapacity = 100;
+}
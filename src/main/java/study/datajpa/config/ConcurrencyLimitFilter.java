@@ -0,0 +1,102 @@
+package study.datajpa.config;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 동시에 처리하는 요청 수를 커넥션 풀 크기로 제한한다.
+ * 가상 스레드에서는 세마포어 대기가 싸기 때문에 요청이 커넥션 획득 타임아웃 대신 여기서 줄을 선다.
+ * 비동기 응답(StreamingResponseBody, CompletableFuture)은 컨트롤러가 반환된 뒤에도 커넥션을 쓰므로
+ * 비동기 처리가 끝날 때(완료, 오류, 타임아웃) 허가를 반납한다.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final long acquireTimeoutNanos;
+
+    public ConcurrencyLimitFilter(int maxConcurrency, Duration acquireTimeout) {
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+
+        if (!acquired) {
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "too many concurrent requests");
+            return;
+        }
+
+        Runnable release = releaseOnce();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseListener(release));
+            } else {
+                release.run();
+            }
+        }
+    }
+
+    // 오류나 타임아웃 뒤에 완료 이벤트가 다시 오므로 한 번만 반납한다
+    private Runnable releaseOnce() {
+        AtomicBoolean released = new AtomicBoolean();
+        return () -> {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        };
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    public int getQueueLength() {
+        return permits.getQueueLength();
+    }
+
+    private record ReleaseListener(Runnable release) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // 다시 비동기로 시작되면 새 AsyncContext에 리스너를 다시 등록해야 완료 이벤트를 받는다
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package study.datajpa.config;
+
+import lombok.Getter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Getter
+public class ExecutorStats {
+    private final int poolSize;
+    private final int activeCount;
+    private final int queueSize;
+    private final int queueRemainingCapacity;
+    private final long completedTaskCount;
+
+    public ExecutorStats(ThreadPoolTaskExecutor executor) {
+        ThreadPoolExecutor pool = executor.getThreadPoolExecutor();
+        this.poolSize = pool.getPoolSize();
+        this.activeCount = pool.getActiveCount();
+        this.queueSize = pool.getQueue().size();
+        this.queueRemainingCapacity = pool.getQueue().remainingCapacity();
+        this.completedTaskCount = pool.getCompletedTaskCount();
+    }
+}
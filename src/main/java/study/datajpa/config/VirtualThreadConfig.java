@@ -0,0 +1,46 @@
+package study.datajpa.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * datajpa.virtual-threads.enabled=true 이면 톰캣 요청을 가상 스레드에서 처리한다.
+ * 요청 스레드에서 호출하는 @Transactional 리포지토리 작업도 그대로 가상 스레드에서 실행된다.
+ * Java 17 런타임에서는 가상 스레드가 없으므로 경고만 남기고 플랫폼 스레드 풀을 사용한다 (동시성 제한은 적용).
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "datajpa.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> {
+            ExecutorService executor = VirtualThreads.newPerTaskExecutor().orElse(null);
+            if (executor == null) {
+                log.warn("가상 스레드를 지원하지 않는 런타임입니다 (Java {}). 플랫폼 스레드 풀을 사용합니다",
+                        Runtime.version().feature());
+                return;
+            }
+            protocolHandler.setExecutor(executor);
+        };
+    }
+
+    @Bean
+    public ConcurrencyLimitFilter concurrencyLimitFilter(VirtualThreadProperties properties, DataSource dataSource)
+            throws SQLException {
+        int maxConcurrency = properties.getMaxConcurrency() > 0
+                ? properties.getMaxConcurrency()
+                : dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+        log.info("동시 요청 처리 제한: {}건 (대기 시간 {})", maxConcurrency, properties.getAcquireTimeout());
+        return new ConcurrencyLimitFilter(maxConcurrency, properties.getAcquireTimeout());
+    }
+}
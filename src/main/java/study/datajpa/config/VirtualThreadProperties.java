@@ -0,0 +1,18 @@
+package study.datajpa.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "datajpa.virtual-threads")
+public class VirtualThreadProperties {
+    private boolean enabled = false;
+    // 동시에 처리할 요청 수, 0이면 커넥션 풀 최대 크기와 같게
+    private int maxConcurrency = 0;
+    // 처리 순서를 기다리는 최대 시간, 넘기면 503 응답
+    private Duration acquireTimeout = Duration.ofSeconds(5);
+}
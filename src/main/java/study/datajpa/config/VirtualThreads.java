@@ -0,0 +1,27 @@
+package study.datajpa.config;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 소스 호환성이 Java 17이라 가상 스레드 API를 직접 참조할 수 없으므로 리플렉션으로 찾는다.
+ * Java 21 이상에서 실행할 때만 가상 스레드 실행기를 돌려준다.
+ */
+final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    static Optional<ExecutorService> newPerTaskExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return Optional.of((ExecutorService) factory.invoke(null));
+        } catch (NoSuchMethodException e) {
+            return Optional.empty();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("가상 스레드 실행기를 만들 수 없습니다", e);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package study.datajpa.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.format.FormatterRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import study.datajpa.controller.MemberSummaryConverter;
+import study.datajpa.repository.MemberSummaryLoader;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    // 요청 스코프 프록시라서 변환 시점의 요청에 해당하는 로더가 사용된다
+    private final MemberSummaryLoader memberSummaryLoader;
+
+    @Override
+    public void addFormatters(FormatterRegistry registry) {
+        registry.addConverter(new MemberSummaryConverter(memberSummaryLoader));
+    }
+}
@@ -1,39 +1,81 @@
 package study.datajpa.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.PathVariable;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.data.web.SortDefault;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import study.datajpa.dto.DashboardDto;
 import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.CountMode;
+import study.datajpa.repository.CountedPage;
+import study.datajpa.repository.KeysetSlice;
 import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.MemberSummary;
+import study.datajpa.repository.MemberSummaryLoader;
+import study.datajpa.repository.TeamBatchLoader;
+import study.datajpa.repository.TeamRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 @RestController
 @RequiredArgsConstructor
 public class MemberController {
+    private static final int MAX_KEYSET_SIZE = 2000;
+    private static final int EXPORT_FETCH_SIZE = 500;
+    private static final int MAX_SEARCH_SIZE = 100;
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final MemberRepository memberRepository;
+    private final TeamRepository teamRepository;
+    private final TeamBatchLoader teamBatchLoader;
+    private final MemberSummaryLoader memberSummaryLoader;
+    private final MemberListValidator memberListValidator;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
 
+    // 이름만 필요하므로 엔티티 대신 MemberSummary 조회 (같은 요청에서 같은 식별자는 한 번만 조회)
     @GetMapping("/members/{id}")
     public String findMember(@PathVariable("id") Long id) {
-        Member member = memberRepository.findById(id).get();
-        return member.getUsername();
+        MemberSummary member = memberSummaryLoader.get(id).orElseThrow();
+        return member.username();
     }
 
     @GetMapping("/members2/{id}")
-    public String findMember2(@PathVariable("id") Member member) {
-        // 도메인 클래스 컨버터도 리포지토리를 사용해서 엔티티를 찾음
+    public String findMember2(@PathVariable("id") MemberSummary member) {
+        // 도메인 클래스 컨버터는 엔티티 전체를 로딩하므로 MemberSummaryConverter로 필요한 컬럼만 조회
         // 단순 조회용으로만 사용해야 한다
-        return member.getUsername();
+        return member.username();
     }
 
+    // 변경이 없으면 목록을 조회하지 않고 304 응답 (MemberListValidator)
     @GetMapping("/members-old")
-    public Page<Member> list(@PageableDefault(size = 5, sort = "username", direction = Sort.Direction.DESC) Pageable pageable) {
+    public Page<Member> list(@PageableDefault(size = 5, sort = "username", direction = Sort.Direction.DESC) Pageable pageable,
+                             WebRequest webRequest) {
+        if (memberListValidator.checkNotModified(webRequest, "members-old", pageable, false)) {
+            return null;
+        }
         return memberRepository.findAll(pageable);
     }
 
@@ -45,16 +87,99 @@ public class MemberController {
     //     return ...;
     // }
 
+    // count 파라미터로 전체 건수 전략 선택 (EXACT, CACHED, ESTIMATED), 응답의 totalExact로 정확한 값인지 알려준다
+    // /members?page=3&size=20&count=CACHED
     @GetMapping("/members")
-    public Page<MemberDto> listOfPageDto(Pageable pageable) {
-        Page<Member> page = memberRepository.findAll(pageable);
-        return page.map(MemberDto::new);
+    public CountedPage<MemberDto> listOfPageDto(Pageable pageable,
+                                                @RequestParam(value = "count", defaultValue = "EXACT") CountMode count,
+                                                WebRequest webRequest) {
+        if (memberListValidator.checkNotModified(webRequest, "members:" + count, pageable, true)) {
+            return null;
+        }
+        CountedPage<Member> page = memberRepository.findMemberAllCountBy(pageable, count);
+        // 페이지의 팀을 in 쿼리 한 번으로 조회 (회원 조회 + 팀 조회, 페이지 크기와 무관)
+        teamBatchLoader.load(page.getContent());
+        return page.map(member -> new MemberDto(member, teamBatchLoader.getTeamName(member)));
+    }
+
+    // 키셋 페이징: offset 없이 마지막 행의 정렬 키 다음부터 조회하므로 뒤쪽 페이지도 첫 페이지와 비용이 같다
+    // /members-keyset?sort=username&size=10 -> 응답의 nextCursor를 cursor 파라미터로 넘겨 다음 페이지 조회
+    @GetMapping("/members-keyset")
+    public KeysetSlice<MemberDto> listOfKeyset(@SortDefault(sort = "username") Sort sort,
+                                               @RequestParam(value = "cursor", required = false) String cursor,
+                                               @RequestParam(value = "size", defaultValue = "10") int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_KEYSET_SIZE));
+        return memberRepository.findMemberKeyset(sort, cursor, pageSize).map(MemberDto::new);
+    }
+
+    // 이름 검색: prefix는 DB 인덱스 범위 검색, infix는 trigram 색인 (대소문자 무시, 3글자 미만이면 400)
+    // /members-search?q=mem&mode=prefix&size=20
+    @GetMapping("/members-search")
+    public List<MemberDto> search(@RequestParam("q") String q,
+                                  @RequestParam(value = "mode", defaultValue = "infix") String mode,
+                                  @RequestParam(value = "size", defaultValue = "20") int size) {
+        int limit = Math.max(1, Math.min(size, MAX_SEARCH_SIZE));
+        List<Member> members = switch (mode) {
+            case "prefix" -> memberRepository.findByUsernameStartingWith(q,
+                    PageRequest.of(0, limit, Sort.by("username", "id"))).getContent();
+            case "infix" -> memberRepository.searchByUsername(q, limit);
+            default -> throw new IllegalArgumentException("지원하지 않는 검색 방식입니다: " + mode);
+        };
+        return members.stream().map(MemberDto::new).toList();
+    }
+
+    // 전체 회원을 NDJSON(한 줄에 MemberDto 하나)으로 내려준다
+    // 커서로 읽으면서 바로 쓰기 때문에 회원 수와 관계없이 힙 사용량이 일정하다
+    @GetMapping("/members-export")
+    public ResponseEntity<StreamingResponseBody> export() {
+        StreamingResponseBody body = out -> {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setReadOnly(true);
+            transaction.executeWithoutResult(status -> {
+                try (Stream<Member> members = memberRepository.streamMemberAll(EXPORT_FETCH_SIZE)) {
+                    members.forEach(member -> writeLine(out, new MemberDto(member)));
+                }
+            });
+        };
+        return ResponseEntity.ok()
+                .contentType(APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    private void writeLine(OutputStream out, MemberDto dto) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(dto));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // 서로 독립적인 조회 3개를 동시에 실행하고 모두 끝나면 응답 (응답 시간 = 가장 느린 조회)
+    @GetMapping("/dashboard")
+    public CompletableFuture<DashboardDto> dashboard(@RequestParam("username") String username) {
+        CompletableFuture<List<Member>> members = memberRepository.findAsyncByUsername(username);
+        CompletableFuture<List<MemberDto>> memberTeams = memberRepository.findMemberDtoAsync();
+        CompletableFuture<List<Team>> teams = teamRepository.findAllAsync();
+
+        return CompletableFuture.allOf(members, memberTeams, teams)
+                .thenApply(done -> new DashboardDto(
+                        members.join().stream().map(MemberDto::new).toList(),
+                        memberTeams.join(),
+                        teams.join().stream().map(Team::getName).toList()));
+    }
+
+    // 리포지토리에서 발생한 IllegalArgumentException은 InvalidDataAccessApiUsageException으로 변환되어 올라온다
+    @ExceptionHandler({IllegalArgumentException.class, InvalidDataAccessApiUsageException.class})
+    public ResponseEntity<String> badRequest(RuntimeException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
     }
 
     // @PostConstruct
     public void init() {
-        for (int i = 0; i < 100; i++) {
-            memberRepository.save(new Member("user" + i, i));
-        }
+        List<Member> members = IntStream.range(0, 100)
+                .mapToObj(i -> new Member("user" + i, i))
+                .toList();
+        memberRepository.saveAllBatched(members, 100);
     }
 }
@@ -0,0 +1,59 @@
+package study.datajpa.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.WebRequest;
+import study.datajpa.entity.TableChange;
+import study.datajpa.repository.TableChangeRepository;
+import study.datajpa.sql.TableWriteCounter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * 회원 목록 조건부 요청(If-None-Match) 처리.
+ * 테이블별 커밋된 쓰기 횟수({@link TableWriteCounter})와 페이지 요청(번호, 크기, 정렬)으로 ETag를 만들고,
+ * 클라이언트 ETag와 같으면 목록을 조회하지 않고 304 Not Modified로 응답한다.
+ * <p>
+ * 쓰기 횟수는 DB(table_change)에 있으므로 304 확인은 기본 키 조회 한 번이고, 여러 인스턴스가 같은 ETag를 만든다.
+ * 버전을 올리지 않는 벌크 연산도 JDBC 쓰기 문장으로 세므로 감지된다.
+ * <p>
+ * Last-Modified는 보내지 않는다. 삭제와 벌크 업데이트는 max(lastModifiedDate)를 바꾸지 않아서
+ * If-Modified-Since만 보내는 클라이언트에게 변경된 목록을 304로 응답할 수 있기 때문이다.
+ */
+@Component
+@RequiredArgsConstructor
+public class MemberListValidator {
+
+    private static final List<String> MEMBER_TABLES = List.of("member");
+    private static final List<String> MEMBER_TEAM_TABLES = List.of("member", "team");
+
+    private final TableChangeRepository tableChangeRepository;
+
+    /**
+     * @param view         응답 형태 구분 (같은 페이지라도 응답 형태가 다르면 ETag가 달라야 한다)
+     * @param includeTeams 응답에 팀 정보가 포함되면 팀 변경도 감지한다
+     * @return true면 304 응답이 설정된 것이므로 핸들러는 null을 반환한다
+     */
+    public boolean checkNotModified(WebRequest request, String view, Pageable pageable, boolean includeTeams) {
+        List<String> tables = includeTeams ? MEMBER_TEAM_TABLES : MEMBER_TABLES;
+        List<TableChange> changes = tableChangeRepository.findByTableNameInOrderByTableName(tables);
+        // 세지 않는 테이블이 있으면 변경을 감지할 수 없으므로 ETag 없이 목록을 응답한다
+        if (changes.size() < tables.size()) {
+            return false;
+        }
+
+        StringBuilder key = new StringBuilder(view)
+                .append('|').append(pageable.getPageNumber())
+                .append('|').append(pageable.getPageSize())
+                .append('|').append(pageable.getSort());
+        for (TableChange change : changes) {
+            key.append('|').append(change.getTableName()).append(':').append(change.getChangeCount());
+        }
+
+        String etag = '"' + DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8)) + '"';
+        return request.checkNotModified(etag);
+    }
+}
@@ -0,0 +1,22 @@
+package study.datajpa.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.convert.converter.Converter;
+import study.datajpa.repository.MemberSummary;
+import study.datajpa.repository.MemberSummaryLoader;
+
+/**
+ * 경로 변수(회원 식별자)를 MemberSummary로 변환한다.
+ * 도메인 클래스 컨버터(Member)와 달리 엔티티를 로딩하지 않고 필요한 컬럼만 조회한다.
+ * 없는 회원이면 null을 반환해서 도메인 클래스 컨버터와 같은 400 응답이 된다.
+ */
+@RequiredArgsConstructor
+public class MemberSummaryConverter implements Converter<String, MemberSummary> {
+
+    private final MemberSummaryLoader memberSummaryLoader;
+
+    @Override
+    public MemberSummary convert(String source) {
+        return memberSummaryLoader.get(Long.valueOf(source)).orElse(null);
+    }
+}
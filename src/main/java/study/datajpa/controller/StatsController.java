@@ -0,0 +1,96 @@
+package study.datajpa.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import study.datajpa.bulk.BulkUpdateEngine;
+import study.datajpa.bulk.BulkUpdateProgress;
+import study.datajpa.cache.CacheRegionStats;
+import study.datajpa.cache.CacheStatistics;
+import study.datajpa.config.AsyncConfig;
+import study.datajpa.config.ExecutorStats;
+import study.datajpa.datasource.DataSourceRouter;
+import study.datajpa.datasource.PoolStats;
+import study.datajpa.repository.SpecPlanCacheStats;
+import study.datajpa.repository.SpecificationPlanCache;
+import study.datajpa.retry.OptimisticRetryStats;
+import study.datajpa.retry.OptimisticRetryTemplate;
+import study.datajpa.sql.SqlFingerprintRegistry;
+import study.datajpa.sql.SqlFingerprintReport;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+public class StatsController {
+    private final CacheStatistics cacheStatistics;
+    @Qualifier(AsyncConfig.REPOSITORY_EXECUTOR)
+    private final ThreadPoolTaskExecutor repositoryExecutor;
+    // replica 프로필에서만 등록된다
+    private final ObjectProvider<DataSourceRouter> dataSourceRouter;
+    private final BulkUpdateEngine bulkUpdateEngine;
+    private final OptimisticRetryTemplate optimisticRetryTemplate;
+    private final SpecificationPlanCache specificationPlanCache;
+    private final SqlFingerprintRegistry sqlFingerprintRegistry;
+
+    // /stats/cache/team, /stats/cache/team.members
+    @GetMapping("/stats/cache/{region}")
+    public CacheRegionStats cacheRegion(@PathVariable("region") String region) {
+        return cacheStatistics.region(region);
+    }
+
+    // /stats/cache/query/member.username
+    @GetMapping("/stats/cache/query/{region}")
+    public CacheRegionStats queryCacheRegion(@PathVariable("region") String region) {
+        return cacheStatistics.queryRegion(region);
+    }
+
+    @GetMapping("/stats/executor/repository")
+    public ExecutorStats repositoryExecutor() {
+        return new ExecutorStats(repositoryExecutor);
+    }
+
+    @GetMapping("/stats/bulk-update/{jobName}")
+    public ResponseEntity<BulkUpdateProgress> bulkUpdate(@PathVariable("jobName") String jobName) {
+        return ResponseEntity.of(bulkUpdateEngine.getProgress(jobName));
+    }
+
+    @GetMapping("/stats/optimistic-retry")
+    public OptimisticRetryStats optimisticRetry() {
+        return optimisticRetryTemplate.stats();
+    }
+
+    @GetMapping("/stats/spec-plan-cache")
+    public SpecPlanCacheStats specPlanCache() {
+        return specificationPlanCache.stats();
+    }
+
+    // /stats/sql/top?limit=10&sort=total (total, mean, max, p99, count, rows)
+    @GetMapping("/stats/sql/top")
+    public List<SqlFingerprintReport> topSql(@RequestParam(value = "limit", defaultValue = "10") int limit,
+                                             @RequestParam(value = "sort", defaultValue = "total") String sort) {
+        return sqlFingerprintRegistry.top(limit, SqlFingerprintRegistry.SortBy.valueOf(sort.toUpperCase()));
+    }
+
+    @GetMapping("/stats/datasource")
+    public ResponseEntity<List<PoolStats>> dataSourcePools() {
+        DataSourceRouter router = dataSourceRouter.getIfAvailable();
+        if (router == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(router.stats());
+    }
+
+    // 2차 캐시가 꺼져 있거나 없는 영역 이름이면 Hibernate가 IllegalArgumentException을 던진다
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> notFound(IllegalArgumentException e) {
+        return ResponseEntity.notFound().build();
+    }
+}
@@ -0,0 +1,120 @@
+package study.datajpa.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 읽기 전용 트랜잭션(@Transactional(readOnly = true), 리포지토리 기본 조회 트랜잭션)은 replica로,
+ * 나머지는 primary로 보낸다.
+ * <p>
+ * JpaTransactionManager는 트랜잭션 시작 시 readOnly 여부를 등록하기 전에 커넥션을 얻기 때문에
+ * LazyConnectionDataSourceProxy로 감싸서 첫 SQL 실행 시점에 라우팅한다.
+ * 트랜잭션 밖의 조회(OSIV 지연 로딩 등)는 primary를 사용한다.
+ * <p>
+ * 쓰기를 커밋한 요청(요청 밖이면 스레드)만 복제 지연 허용 시간 동안 읽기도 primary로 보낸다 (read-your-writes).
+ * 다른 요청의 읽기는 계속 replica를 사용한다.
+ */
+public class DataSourceRouter implements DisposableBean {
+
+    enum Route {PRIMARY, REPLICA}
+
+    private static final String LAST_WRITE_COMMIT = DataSourceRouter.class.getName() + ".lastWriteCommit";
+
+    private final HikariDataSource primary;
+    private final HikariDataSource replica;
+    private final long lagToleranceNanos;
+    private final DataSource dataSource;
+    private final LongAdder primaryRoutes = new LongAdder();
+    private final LongAdder replicaRoutes = new LongAdder();
+    // 요청 밖(배치, 비동기 작업 등)에서는 스레드마다 마지막 쓰기 커밋 시각을 기억한다
+    private final ThreadLocal<Long> lastWriteCommit = new ThreadLocal<>();
+
+    public DataSourceRouter(HikariDataSource primary, HikariDataSource replica, long lagToleranceNanos) {
+        this.primary = primary;
+        this.replica = replica;
+        this.lagToleranceNanos = lagToleranceNanos;
+
+        AbstractRoutingDataSource routingDataSource = new AbstractRoutingDataSource() {
+            @Override
+            protected Object determineCurrentLookupKey() {
+                return route();
+            }
+        };
+        routingDataSource.setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        routingDataSource.setDefaultTargetDataSource(primary);
+        routingDataSource.afterPropertiesSet();
+        this.dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    Route route() {
+        boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        if (readOnly && !wroteRecently()) {
+            replicaRoutes.increment();
+            return Route.REPLICA;
+        }
+
+        if (!readOnly && TransactionSynchronizationManager.isSynchronizationActive()) {
+            // 쓰기 트랜잭션이 커밋되면 복제 지연 허용 시간 동안 이 요청(스레드)의 읽기도 primary에서 처리
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    markWriteCommit();
+                }
+            });
+        }
+        primaryRoutes.increment();
+        return Route.PRIMARY;
+    }
+
+    private void markWriteCommit() {
+        long now = System.nanoTime();
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            request.setAttribute(LAST_WRITE_COMMIT, now, RequestAttributes.SCOPE_REQUEST);
+        } else {
+            lastWriteCommit.set(now);
+        }
+    }
+
+    private boolean wroteRecently() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        Long last = request != null
+                ? (Long) request.getAttribute(LAST_WRITE_COMMIT, RequestAttributes.SCOPE_REQUEST)
+                : lastWriteCommit.get();
+        if (last == null) {
+            return false;
+        }
+        if (System.nanoTime() - last > lagToleranceNanos) {
+            if (request == null) {
+                lastWriteCommit.remove();
+            }
+            return false;
+        }
+        return true;
+    }
+
+    public List<PoolStats> stats() {
+        return List.of(new PoolStats(primary, primaryRoutes.sum()), new PoolStats(replica, replicaRoutes.sum()));
+    }
+
+    @Override
+    public void destroy() {
+        replica.close();
+        primary.close();
+    }
+}
@@ -0,0 +1,26 @@
+package study.datajpa.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.Getter;
+
+@Getter
+public class PoolStats {
+    private final String poolName;
+    private final long routedTransactions;
+    private final int activeConnections;
+    private final int idleConnections;
+    private final int totalConnections;
+    private final int threadsAwaitingConnection;
+
+    PoolStats(HikariDataSource dataSource, long routedTransactions) {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        this.poolName = dataSource.getPoolName();
+        this.routedTransactions = routedTransactions;
+        // 아직 커넥션을 한 번도 얻지 않았으면 풀이 만들어지지 않았다
+        this.activeConnections = pool == null ? 0 : pool.getActiveConnections();
+        this.idleConnections = pool == null ? 0 : pool.getIdleConnections();
+        this.totalConnections = pool == null ? 0 : pool.getTotalConnections();
+        this.threadsAwaitingConnection = pool == null ? 0 : pool.getThreadsAwaitingConnection();
+    }
+}
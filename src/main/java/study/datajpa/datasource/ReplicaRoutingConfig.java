@@ -0,0 +1,54 @@
+package study.datajpa.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+
+/**
+ * datajpa.datasource.routing.enabled=true 이면 spring.datasource 대신 primary/replica 두 커넥션 풀을 사용한다.
+ * 두 풀은 빈으로 등록하지 않기 때문에 p6spy는 라우팅 DataSource 하나만 감싼다.
+ * 같은 이유로 스프링 부트가 커넥션 풀 메트릭을 연결하지 않으므로 직접 연결한다 (hikaricp.connections.*, pool 태그).
+ */
+@Configuration
+@ConditionalOnProperty(name = "datajpa.datasource.routing.enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    public DataSourceRouter dataSourceRouter(ReplicaRoutingProperties properties,
+                                             ObjectProvider<MeterRegistry> meterRegistry) {
+        return new DataSourceRouter(
+                createPool("primary", properties.getPrimary(), meterRegistry),
+                createPool("replica", properties.getReplica(), meterRegistry),
+                properties.getReplicaLagTolerance().toNanos());
+    }
+
+    @Primary
+    @Bean
+    public DataSource dataSource(DataSourceRouter dataSourceRouter) {
+        return dataSourceRouter.getDataSource();
+    }
+
+    private HikariDataSource createPool(String poolName, ReplicaRoutingProperties.Pool pool,
+                                        ObjectProvider<MeterRegistry> meterRegistry) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(poolName);
+        dataSource.setJdbcUrl(pool.getUrl());
+        dataSource.setUsername(pool.getUsername());
+        dataSource.setPassword(pool.getPassword());
+        if (pool.getDriverClassName() != null) {
+            dataSource.setDriverClassName(pool.getDriverClassName());
+        }
+        dataSource.setMaximumPoolSize(pool.getMaximumPoolSize());
+        // 풀이 시작되기(첫 커넥션 요청) 전에 설정해야 한다
+        meterRegistry.ifAvailable(registry ->
+                dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+        return dataSource;
+    }
+}
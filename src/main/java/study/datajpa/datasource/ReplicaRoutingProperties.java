@@ -0,0 +1,27 @@
+package study.datajpa.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "datajpa.datasource")
+public class ReplicaRoutingProperties {
+    // 쓰기 트랜잭션을 커밋한 요청(스레드)은 이 시간 동안 읽기 전용 트랜잭션도 primary로 보낸다 (복제 지연 허용치)
+    private Duration replicaLagTolerance = Duration.ofSeconds(1);
+    private final Pool primary = new Pool();
+    private final Pool replica = new Pool();
+
+    @Getter
+    @Setter
+    public static class Pool {
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,18 @@
+package study.datajpa.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class DashboardDto {
+    private List<MemberDto> members;
+    private List<MemberDto> memberTeams;
+    private List<String> teamNames;
+
+    public DashboardDto(List<MemberDto> members, List<MemberDto> memberTeams, List<String> teamNames) {
+        this.members = members;
+        this.memberTeams = memberTeams;
+        this.teamNames = teamNames;
+    }
+}
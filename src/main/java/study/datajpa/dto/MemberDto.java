@@ -20,4 +20,9 @@ public class MemberDto {
         this.username = member.getUsername();
         // this.teamName = member.getTeam().getName();
     }
+
+    // 팀 이름은 TeamBatchLoader 등으로 미리 한 번에 조회해서 넘긴다 (회원마다 지연 로딩 X)
+    public MemberDto(Member member, String teamName) {
+        this(member.getId(), member.getUsername(), teamName);
+    }
 }
@@ -0,0 +1,48 @@
+package study.datajpa.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * 벌크 업데이트 작업에서 완료된 식별자 구간 기록.
+ * 구간 업데이트와 같은 트랜잭션에서 저장되므로, 기록이 있으면 그 구간은 반영된 것이다.
+ */
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_bulk_update_chunk", columnNames = {"job_name", "from_id"}))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+public class BulkUpdateChunk {
+
+    @Id
+    @GeneratedValue
+    @Column(name = "bulk_update_chunk_id")
+    private Long id;
+
+    @Column(name = "job_name", nullable = false)
+    private String jobName;
+
+    @Column(name = "from_id", nullable = false)
+    private Long fromId;
+
+    @Column(name = "to_id", nullable = false)
+    private Long toId;
+
+    private int rowsAffected;
+
+    private LocalDateTime completedAt;
+
+    // completedAt은 감사 시각 제공자(AuditConfig.DATE_TIME_PROVIDER)에서 받는다
+    public BulkUpdateChunk(String jobName, Long fromId, Long toId, int rowsAffected, LocalDateTime completedAt) {
+        this.jobName = jobName;
+        this.fromId = fromId;
+        this.toId = toId;
+        this.rowsAffected = rowsAffected;
+        this.completedAt = completedAt;
+    }
+}
@@ -1,13 +1,15 @@
 package study.datajpa.entity;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.MappedSuperclass;
-import jakarta.persistence.PrePersist;
-import jakarta.persistence.PreUpdate;
 import lombok.Getter;
+import study.datajpa.audit.JpaBaseEntityListener;
 
 import java.time.LocalDateTime;
 
+// 등록/수정 시각은 JpaBaseEntityListener가 @PrePersist, @PreUpdate 시점에 채운다
+@EntityListeners(JpaBaseEntityListener.class)
 @MappedSuperclass
 @Getter
 public class JpaBaseEntity {
@@ -15,16 +17,12 @@ public class JpaBaseEntity {
     private LocalDateTime createdDate;
     private LocalDateTime updatedDate;
 
-    @PrePersist
-    public void prePersist() {
-        LocalDateTime now = LocalDateTime.now();
+    public void prePersist(LocalDateTime now) {
         this.createdDate = now;
         this.updatedDate = now;
     }
 
-
-    @PreUpdate
-    public void preUpdate() {
-        updatedDate = LocalDateTime.now();
+    public void preUpdate(LocalDateTime now) {
+        updatedDate = now;
     }
 }
@@ -2,11 +2,22 @@ package study.datajpa.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import study.datajpa.search.UsernameIndexListener;
 
 @Entity
+@Table(indexes = @Index(name = "idx_member_username", columnList = "username, member_id"))
+@EntityListeners(UsernameIndexListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "member")
 @NamedQuery(
         name = "Member.findByUsername",
-        query = "select m from Member m where m.username = :username"
+        query = "select m from Member m where m.username = :username",
+        hints = {
+                @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+                @QueryHint(name = "org.hibernate.cacheRegion", value = "member.username")
+        }
 )
 @Getter
 @Setter
@@ -15,13 +26,20 @@ import lombok.*;
 @NamedEntityGraph(name = "Member.all", attributeNodes = @NamedAttributeNode("team"))
 public class Member extends BaseEntity {
 
+    // pooled 옵티마이저: 시퀀스를 한 번 호출할 때마다 식별자 50개를 미리 확보해서 배치 insert 시 시퀀스 호출을 줄인다
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "member_seq_generator")
+    @SequenceGenerator(name = "member_seq_generator", sequenceName = "member_seq", allocationSize = 50)
     @Column(name = "member_id")
     private Long id;
     private String username;
     private int age;
 
+    // 낙관적 락: 수정 시 where version = ? 조건으로 동시 수정 충돌을 감지 (OptimisticRetryTemplate으로 재시도)
+    @Version
+    @Setter(AccessLevel.NONE)
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "team_id")
     private Team team;
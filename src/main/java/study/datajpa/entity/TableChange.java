@@ -0,0 +1,35 @@
+package study.datajpa.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * 테이블별 커밋된 쓰기 횟수 (목록 조건부 요청의 ETag 계산용).
+ * 값은 TableWriteCounter가 쓰기 트랜잭션의 커밋 직전에 같은 연결에서 올리므로 데이터 변경과 함께 커밋/롤백되고,
+ * DB에 있으므로 인스턴스가 여러 개이거나 재시작해도 같은 데이터에는 같은 값이 보인다.
+ * TableWriteCounter가 직접 SQL로 갱신하므로 테이블/컬럼 이름을 고정한다.
+ */
+@Entity
+@Table(name = "table_change")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+public class TableChange {
+
+    @Id
+    @Column(name = "table_name")
+    private String tableName;
+
+    @Column(name = "change_count", nullable = false)
+    private long changeCount;
+
+    public TableChange(String tableName) {
+        this.tableName = tableName;
+    }
+}
@@ -2,23 +2,37 @@ package study.datajpa.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.OptimisticLock;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "team")
 @Getter
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id", "name"})
 public class Team {
 
+    // Member와 같은 pooled 시퀀스 전략
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "team_seq_generator")
+    @SequenceGenerator(name = "team_seq_generator", sequenceName = "team_seq", allocationSize = 50)
     @Column(name = "team_id")
     private Long id;
     private String name;
 
+    @Version
+    @Setter(AccessLevel.NONE)
+    private Long version;
+
+    // 회원이 팀에 들어오고 나가는 것만으로는 팀 버전을 올리지 않는다
+    @OptimisticLock(excluded = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "team.members")
     @OneToMany(mappedBy = "team")
     List<Member> members = new ArrayList<>();
 
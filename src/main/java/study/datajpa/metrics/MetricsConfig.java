@@ -0,0 +1,23 @@
+package study.datajpa.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 메트릭은 /actuator/metrics 에서 확인한다.
+ * - spring.data.repository.invocations: 리포지토리 메서드 실행 시간 (스프링 부트 기본)
+ * - spring.data.repository.results: 리포지토리 메서드 결과 건수
+ * - hibernate.*: Hibernate Statistics (hibernate.generate_statistics, hibernate-micrometer)
+ * - hikaricp.connections.*: 커넥션 풀, hikaricp.connections.acquire 가 커넥션 획득 시간
+ */
+@Configuration(proxyBeanMethods = false)
+public class MetricsConfig {
+
+    // BeanPostProcessor는 다른 빈보다 먼저 만들어지므로 static으로 등록하고 MeterRegistry는 사용 시점에 가져온다
+    @Bean
+    public static RepositoryResultSizeMetrics repositoryResultSizeMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new RepositoryResultSizeMetrics(meterRegistry);
+    }
+}
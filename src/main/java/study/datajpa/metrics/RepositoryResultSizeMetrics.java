@@ -0,0 +1,130 @@
+package study.datajpa.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.ResolvableType;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.stream.BaseStream;
+
+/**
+ * 모든 스프링 데이터 리포지토리 메서드의 결과 건수를 spring.data.repository.results 분포 요약으로 기록한다.
+ * 실행 시간은 스프링 부트가 spring.data.repository.invocations 타이머로 기록한다 (같은 repository, method 태그).
+ * <p>
+ * 컬렉션/Page/Slice는 건수, Optional과 단건 결과는 0 또는 1, CompletableFuture는 완료 시점에 기록한다.
+ * void 메서드(delete 등), Stream, 숫자(count, 벌크 연산 결과) 등은 기록하지 않는다.
+ */
+public class RepositoryResultSizeMetrics implements BeanPostProcessor {
+
+    public static final String METRIC_NAME = "spring.data.repository.results";
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public RepositoryResultSizeMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    // 리포지토리 프록시는 팩토리 빈 초기화 시점에 만들어지므로 그 전에 인터셉터를 등록한다
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                    (proxyFactory, information) ->
+                            proxyFactory.addAdvice(new ResultSizeInterceptor(information.getRepositoryInterface()))));
+        }
+        return bean;
+    }
+
+    private class ResultSizeInterceptor implements MethodInterceptor {
+
+        private final Class<?> repositoryInterface;
+        // findAll처럼 상위 인터페이스에서 상속한 메서드는 리포지토리마다 같은 Method이므로 리포지토리별로 따로 둔다
+        private final Map<Method, DistributionSummary> summaries = new ConcurrentHashMap<>();
+        // 메서드 반환 타입 (CompletableFuture는 완료 값의 타입, 제네릭은 리포지토리 기준으로 풀어서)
+        private final Map<Method, Class<?>> resultTypes = new ConcurrentHashMap<>();
+
+        ResultSizeInterceptor(Class<?> repositoryInterface) {
+            this.repositoryInterface = repositoryInterface;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            Object result = invocation.proceed();
+            Method method = invocation.getMethod();
+            Class<?> resultType = resultTypes.computeIfAbsent(method, this::resultType);
+            if (resultType == void.class || resultType == Void.class) {
+                return result;
+            }
+            if (result instanceof CompletableFuture<?> future) {
+                future.thenAccept(value -> record(method, resultType, value));
+            } else {
+                record(method, resultType, result);
+            }
+            return result;
+        }
+
+        private Class<?> resultType(Method method) {
+            ResolvableType type = ResolvableType.forMethodReturnType(method, repositoryInterface);
+            if (Future.class.isAssignableFrom(type.toClass())) {
+                type = type.getGeneric(0);
+            }
+            return type.toClass();
+        }
+
+        private void record(Method method, Class<?> resultType, Object result) {
+            long size = resultSize(resultType, result);
+            if (size >= 0) {
+                summaries.computeIfAbsent(method, m -> DistributionSummary.builder(METRIC_NAME)
+                                .description("Number of rows returned by a Spring Data repository method")
+                                .baseUnit("rows")
+                                .tag("repository", repositoryInterface.getSimpleName())
+                                .tag("method", m.getName())
+                                .register(meterRegistry.getObject()))
+                        .record(size);
+            }
+        }
+    }
+
+    // 기록하지 않는 결과는 -1, null은 단건 조회 결과일 때만 0건
+    static long resultSize(Class<?> resultType, Object result) {
+        if (result == null) {
+            return isSingleResult(resultType) ? 0 : -1;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof Number || result instanceof Boolean || result instanceof Iterable<?>
+                || result instanceof BaseStream<?, ?>) {
+            return -1;
+        }
+        return 1;
+    }
+
+    private static boolean isSingleResult(Class<?> resultType) {
+        return !resultType.isPrimitive()
+                && resultType != Void.class
+                && !Number.class.isAssignableFrom(resultType)
+                && !Boolean.class.isAssignableFrom(resultType)
+                && !Iterable.class.isAssignableFrom(resultType)
+                && !BaseStream.class.isAssignableFrom(resultType)
+                && !Optional.class.isAssignableFrom(resultType);
+    }
+}
@@ -0,0 +1,12 @@
+package study.datajpa.repository;
+
+import org.springframework.transaction.annotation.Transactional;
+
+public interface BulkSaveRepository<T> {
+
+    // batchSize 건 단위로 JDBC 배치 insert 후 flush/clear 해서 영속성 컨텍스트가 커지지 않게 한다
+    // saveAll()처럼 새 엔티티는 persist, 이미 저장된 엔티티는 merge 한다 (merge는 건마다 select가 나갈 수 있다)
+    // 호출한 트랜잭션의 영속성 컨텍스트도 함께 비워지므로 저장한 엔티티는 준영속 상태가 된다
+    @Transactional
+    <S extends T> int saveAllBatched(Iterable<S> entities, int batchSize);
+}
@@ -0,0 +1,57 @@
+package study.datajpa.repository;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.JpaEntityInformationSupport;
+import org.springframework.data.util.ProxyUtils;
+import org.springframework.util.Assert;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@RequiredArgsConstructor
+public class BulkSaveRepositoryImpl<T> implements BulkSaveRepository<T> {
+
+    private final EntityManager em;
+    // 여러 리포지토리가 같은 조각(fragment)을 공유하므로 엔티티 타입별로 메타 정보를 둔다
+    private final Map<Class<?>, JpaEntityInformation<?, ?>> entityInformation = new ConcurrentHashMap<>();
+
+    @Override
+    public <S extends T> int saveAllBatched(Iterable<S> entities, int batchSize) {
+        Assert.isTrue(batchSize > 0, "batchSize must be greater than 0");
+
+        // 이 세션에서만 JDBC 배치 크기를 flush 단위와 맞춘다
+        Session session = em.unwrap(Session.class);
+        Integer previousBatchSize = session.getJdbcBatchSize();
+        session.setJdbcBatchSize(batchSize);
+        try {
+            int count = 0;
+            for (S entity : entities) {
+                // save()와 같은 기준: 새 엔티티는 persist, 이미 저장된(준영속) 엔티티는 merge
+                if (isNew(entity)) {
+                    em.persist(entity);
+                } else {
+                    em.merge(entity);
+                }
+                if (++count % batchSize == 0) {
+                    em.flush();
+                    em.clear();
+                }
+            }
+            em.flush();
+            em.clear();
+            return count;
+        } finally {
+            session.setJdbcBatchSize(previousBatchSize);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean isNew(Object entity) {
+        JpaEntityInformation<Object, ?> information = (JpaEntityInformation<Object, ?>) entityInformation.computeIfAbsent(
+                ProxyUtils.getUserClass(entity), type -> JpaEntityInformationSupport.getEntityInformation(type, em));
+        return information.isNew(entity);
+    }
+}
@@ -0,0 +1,20 @@
+package study.datajpa.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.BulkUpdateChunk;
+
+import java.util.List;
+
+public interface BulkUpdateChunkRepository extends JpaRepository<BulkUpdateChunk, Long> {
+
+    List<BulkUpdateChunk> findByJobName(String jobName);
+
+    @Transactional
+    @Modifying
+    @Query("delete from BulkUpdateChunk c where c.jobName = :jobName")
+    int deleteByJobName(@Param("jobName") String jobName);
+}
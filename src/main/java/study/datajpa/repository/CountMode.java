@@ -0,0 +1,10 @@
+package study.datajpa.repository;
+
+public enum CountMode {
+    // 매번 count 쿼리 실행
+    EXACT,
+    // 쿼리와 파라미터별로 count 결과를 잠시 캐시해서 뒤쪽 페이지에서는 count 쿼리 생략
+    CACHED,
+    // 테이블 통계의 추정 건수 사용 (조건이 없는 쿼리만, 조건이 있는 쿼리는 IllegalArgumentException)
+    ESTIMATED
+}
@@ -0,0 +1,15 @@
+package study.datajpa.repository;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "datajpa.in-clause")
+public class InClauseProperties {
+    // in 절 하나에 넣을 최대 값 수. 2의 거듭제곱이 아니면 내림 (in_clause_parameter_padding 구간과 맞춘다)
+    private int chunkSize = 1024;
+    // 나눈 조각을 동시에 조회할 최대 스레드 수 (inClauseExecutor 스레드 수)
+    private int parallelism = 4;
+}
@@ -0,0 +1,15 @@
+package study.datajpa.repository;
+
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Item;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ItemRepositoryCustom {
+
+    // merge()처럼 건마다 select 하지 않고 MERGE 문을 JDBC 배치로 실행한다
+    // 반환 목록은 items 순서와 같다
+    @Transactional
+    List<UpsertOutcome> upsertAll(Collection<Item> items, int batchSize);
+}
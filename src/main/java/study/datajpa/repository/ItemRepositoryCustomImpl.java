@@ -0,0 +1,46 @@
+package study.datajpa.repository;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.datajpa.entity.Item;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class ItemRepositoryCustomImpl implements ItemRepositoryCustom {
+
+    // 매칭되는 행이 없을 때만 insert 하므로 갱신 건수가 1이면 신규, 0이면 기존 행
+    private static final String UPSERT_SQL = "merge into item t" +
+            " using (select cast(? as varchar(255)) as id, cast(? as timestamp(6)) as created_date) s" +
+            " on t.id = s.id" +
+            " when not matched then insert (id, created_date) values (s.id, s.created_date)";
+
+    private final EntityManager em;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<UpsertOutcome> upsertAll(Collection<Item> items, int batchSize) {
+        // JPA 쓰기 지연 저장소에 남은 insert가 MERGE 보다 늦게 실행되지 않도록 먼저 반영
+        em.flush();
+
+        // 한 번의 호출에서 저장되는 행은 같은 생성 시각을 사용 (감사 리스너를 거치지 않음)
+        Timestamp createdDate = Timestamp.valueOf(LocalDateTime.now());
+        int[][] updateCounts = jdbcTemplate.batchUpdate(UPSERT_SQL, items, batchSize, (ps, item) -> {
+            ps.setString(1, item.getId());
+            ps.setTimestamp(2, createdDate);
+        });
+
+        List<UpsertOutcome> outcomes = new ArrayList<>(items.size());
+        for (int[] batch : updateCounts) {
+            for (int updateCount : batch) {
+                outcomes.add(UpsertOutcome.of(updateCount));
+            }
+        }
+        return outcomes;
+    }
+}
@@ -0,0 +1,85 @@
+package study.datajpa.repository;
+
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 키셋 페이징 커서 인코딩/디코딩.
+ * 마지막 행의 정렬 키 값들을 각각 Base64(URL-safe)로 인코딩해서 '.'으로 이어 붙인다.
+ * null 값은 Base64 문자가 아닌 '~'로 표시한다.
+ * 맨 앞에는 커서를 발급한 정렬 조건의 fingerprint를 붙여서, 다른 정렬로 커서를 재사용하면 거부한다.
+ */
+class KeysetCursor {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    private static final String NULL_TOKEN = "~";
+
+    private KeysetCursor() {
+    }
+
+    static String encode(List<Sort.Order> orders, List<Object> values) {
+        return values.stream()
+                .map(KeysetCursor::encodeValue)
+                .collect(Collectors.joining(".", fingerprint(orders) + ".", ""));
+    }
+
+    static List<String> decode(String cursor, List<Sort.Order> orders) {
+        String[] tokens = cursor.split("\\.", -1);
+        if (tokens.length != orders.size() + 1 || !tokens[0].equals(fingerprint(orders))) {
+            throw new IllegalArgumentException("정렬 조건과 맞지 않는 커서입니다: " + cursor);
+        }
+
+        List<String> values = new ArrayList<>(orders.size());
+        for (String token : Arrays.asList(tokens).subList(1, tokens.length)) {
+            if (NULL_TOKEN.equals(token)) {
+                values.add(null);
+                continue;
+            }
+            try {
+                values.add(new String(DECODER.decode(token), StandardCharsets.UTF_8));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("잘못된 커서입니다: " + cursor, e);
+            }
+        }
+        return values;
+    }
+
+    static Object convert(String value, Class<?> type) {
+        if (value == null || type == String.class) {
+            return value;
+        }
+        if (type == Long.class || type == long.class) {
+            return Long.valueOf(value);
+        }
+        if (type == Integer.class || type == int.class) {
+            return Integer.valueOf(value);
+        }
+        if (type == LocalDateTime.class) {
+            return LocalDateTime.parse(value);
+        }
+        throw new IllegalArgumentException("키셋 페이징을 지원하지 않는 정렬 속성 타입입니다: " + type.getName());
+    }
+
+    // 속성, 방향, null 위치가 같으면 같은 값 (String.hashCode는 JVM과 무관하게 고정)
+    static String fingerprint(List<Sort.Order> orders) {
+        String key = orders.stream()
+                .map(order -> order.getProperty() + ' ' + order.getDirection() + ' ' + order.getNullHandling())
+                .collect(Collectors.joining(","));
+        return Integer.toHexString(key.hashCode());
+    }
+
+    private static String encodeValue(Object value) {
+        if (value == null) {
+            return NULL_TOKEN;
+        }
+        return ENCODER.encodeToString(value.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,27 @@
+package study.datajpa.repository;
+
+import lombok.Getter;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Getter
+public class KeysetSlice<T> {
+    private final List<T> content;
+    // 다음 페이지 조회 시 그대로 넘겨주는 커서 (마지막 페이지면 null)
+    private final String nextCursor;
+    private final boolean hasNext;
+
+    public KeysetSlice(List<T> content, String nextCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.hasNext = nextCursor != null;
+    }
+
+    public <U> KeysetSlice<U> map(Function<? super T, ? extends U> converter) {
+        List<U> converted = content.stream()
+                .<U>map(converter)
+                .toList();
+        return new KeysetSlice<>(converted, nextCursor);
+    }
+}
@@ -2,6 +2,7 @@ package study.datajpa.repository;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 import study.datajpa.entity.Member;
 
@@ -9,11 +10,14 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
+@RequiredArgsConstructor
 public class MemberJpaRepository {
 
     @PersistenceContext
     private EntityManager em;
 
+    private final PageCounter pageCounter;
+
     public Member save(Member member) {
         em.persist(member);
         return member;
@@ -70,8 +74,14 @@ public class MemberJpaRepository {
                 .getSingleResult();
     }
 
+    // 페이지를 넘길 때마다 count 하지 않도록 잠시 캐시된 값을 사용 (PageCounter 참고)
+    public long cachedTotalCount(int age) {
+        return pageCounter.cachedCount("select count(m) from Member m where m.age = :age [" + age + "]",
+                () -> totalCount(age));
+    }
+
     public int bulkAgePlus(int age) {
-        return em.createQuery("update Member m set m.age = m.age + 1" +
+        return em.createQuery("update Member m set m.age = m.age + 1, m.version = m.version + 1" +
                 " where m.age >= :age")
                 .setParameter("age", age)
                 .executeUpdate();
@@ -4,19 +4,24 @@ import jakarta.persistence.LockModeType;
 import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
+import org.springframework.scheduling.annotation.Async;
 import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
-public interface MemberRepository extends JpaRepository<Member, Long>, MemberRepositoryCustom, JpaSpecificationExecutor<Member> {
+public interface MemberRepository extends JpaRepository<Member, Long>, MemberRepositoryCustom, JpaSpecificationExecutor<Member>,
+        BulkSaveRepository<Member> {
     List<Member> findByUsernameAndAgeGreaterThan(String username, int age);
 
     // @Query 생략하고 메서드 이름만으로 Named 쿼리 호출 가능 (메서드 이름으로 쿼리 생성 전략 사용)
     // @Query(name = "Member.findByUsername")
+    // 쿼리 캐시 힌트는 @NamedQuery에 지정
     List<Member> findByUsername(@Param("username") String username);
 
     @Query("select m from Member m where m.username = :username and m.age > :age")
@@ -29,12 +34,19 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
             "from Member m join m.team t")
     List<MemberDto> findMemberDto();
 
+    // 쿼리 캐시: 결과(식별자 목록)를 캐시하고, member 테이블이 변경되면 Hibernate가 자동으로 무효화
+    // 2차 캐시가 켜져 있을 때만 동작 (application-cache.yml)
+    @QueryHints({@QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = "member.username")})
     @Query("select m from Member m where m.username = :name")
     Member findMembers(@Param("name") String username);
 
+    // 이름이 수천 개 이상이면 findByNamesChunked 사용
     @Query("select m from Member m where m.username in :names")
     List<Member> findByNames(@Param("names") List<String> names);
 
+    @QueryHints({@QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = "member.username")})
     Optional<Member> findOptionalByUsername(@Param("username") String username);
 
     Page<Member> findByAge(int age, Pageable pageable);
@@ -43,8 +55,10 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
             countQuery = "select count(m.username) from Member m")
     Page<Member> findMemberAllCountBy(Pageable pageable);
 
+    // 전체를 한 트랜잭션에서 갱신한다. 큰 테이블은 BulkUpdateEngine으로 식별자 구간을 나눠서 실행
+    // 벌크 연산은 버전을 자동으로 올리지 않으므로 직접 올려서 낙관적 락 충돌로 감지되게 한다
     @Modifying(clearAutomatically = true)
-    @Query("update Member m set m.age = m.age + 1 where m.age >= :age")
+    @Query("update Member m set m.age = m.age + 1, m.version = m.version + 1 where m.age >= :age")
     int bulkAgePlus(@Param("age") int age);
 
     @Query("select m from Member m left join fetch m.team")
@@ -61,19 +75,57 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     @EntityGraph("Member.all")
     List<Member> findEntityGraphByUsername(@Param("username") String username);
 
-    @QueryHints(value = @QueryHint(name = "org.hibernate.readOnly", value = "true"))
+    @QueryHints(value = {@QueryHint(name = "org.hibernate.readOnly", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = "member.username")})
     Member findReadOnlyByUsername(String username);
 
     @QueryHints(value = {@QueryHint(name = "org.hibernate.readOnly", value = "true")}, forCounting = true)
     Page<Member> findByUsername(String name, Pageable pageable);
 
+    // 동시 수정이 잦지 않으면 @Version + OptimisticRetryTemplate으로 행 락 대기 없이 처리할 수 있다
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     List<Member> findLockByUsername(String username);
 
+    // 작업 선점: 다른 트랜잭션이 잠근 행은 기다리지 않고 건너뛴다 (lock.timeout -2 = FOR UPDATE SKIP LOCKED)
+    // SKIP LOCKED를 지원하지 않는 DB(H2 2.1 등)에서는 일반 FOR UPDATE로 실행되어 잠긴 행을 기다린다
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select m from Member m where m.age < :age order by m.id")
+    List<Member> claimByAgeLessThan(@Param("age") int age, Pageable pageable);
+
+    // 식별자로 이름만 필요할 때: 엔티티(스냅샷, 감사 필드) 대신 필요한 컬럼만 레코드로 조회
+    // DTO 프로젝션은 Member 2차 캐시를 거치지 않으므로 쿼리 캐시에 결과 값 자체를 담는다
+    // member 테이블이 변경되면(벌크 연산 포함) Hibernate가 자동으로 무효화
+    @QueryHints({@QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = "member.summary")})
+    @Query("select new study.datajpa.repository.MemberSummary(m.id, m.username) from Member m where m.id = :id")
+    Optional<MemberSummary> findSummaryById(@Param("id") Long id);
+
+    // 식별자 순서로 나눠 읽기 (UsernameIndexLoader에서 색인 생성 시 사용)
+    @Query("select new study.datajpa.repository.MemberSummary(m.id, m.username) from Member m " +
+            "where m.id > :id order by m.id")
+    List<MemberSummary> findSummariesAfter(@Param("id") Long id, Pageable pageable);
+
+    // 접두사 검색: like 'prefix%'는 idx_member_username 인덱스 범위 검색으로 처리된다 (대소문자 구분)
+    // 부분 문자열 검색은 searchByUsername 사용, count 쿼리가 필요 없으므로 Slice로 조회
+    Slice<Member> findByUsernameStartingWith(String prefix, Pageable pageable);
+
     List<UsernameOnly> findProjectionsByUsername(String username);
 
     <T> List<T> findProjectionsByUsername(String username, Class<T> type);
 
+    // 인터페이스 Projection은 결과 행마다 프록시와 접근자 호출 비용이 든다
+    // 레코드는 JPQL 생성자 표현식으로 Hibernate가 바로 생성한다 (팀은 필요한 컬럼만 조인)
+    @Query("select new study.datajpa.repository.MemberTeamRecord(m.id, m.username, t.name) " +
+            "from Member m left join m.team t where m.username = :username")
+    List<MemberTeamRecord> findMemberTeamRecordsByUsername(@Param("username") String username);
+
+    @Query(value = "select new study.datajpa.repository.MemberTeamRecord(m.id, m.username, t.name) " +
+            "from Member m left join m.team t",
+            countQuery = "select count(m) from Member m")
+    Page<MemberTeamRecord> findMemberTeamRecords(Pageable pageable);
+
     @Query(value = "select * from member where username = ?", nativeQuery = true)
     Member findByNativeQuery(String username);
 
@@ -82,4 +134,13 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
             countQuery = "select count(*) from member",
             nativeQuery = true)
     Page<MemberProjection> findByNativeProjection(Pageable pageable);
+
+    // 비동기 조회: repositoryExecutor 스레드에서 별도 트랜잭션으로 실행 (AsyncConfig 참고)
+    @Async("repositoryExecutor")
+    CompletableFuture<List<Member>> findAsyncByUsername(String username);
+
+    @Async("repositoryExecutor")
+    @Query("select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) " +
+            "from Member m join m.team t")
+    CompletableFuture<List<MemberDto>> findMemberDtoAsync();
 }
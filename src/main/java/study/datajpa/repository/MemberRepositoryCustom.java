@@ -1,9 +1,41 @@
 package study.datajpa.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import study.datajpa.entity.Member;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface MemberRepositoryCustom {
     List<Member> findMemberCustom();
+
+    // 키셋(seek) 페이징: cursor가 null이면 첫 페이지, 이후에는 이전 결과의 nextCursor를 넘긴다
+    // 커서는 발급할 때와 같은 sort로만 사용할 수 있다 (다르면 IllegalArgumentException)
+    KeysetSlice<Member> findMemberKeyset(Sort sort, String cursor, int size);
+
+    // 전체 회원을 커서로 한 건씩 읽는다. 트랜잭션 안에서 호출하고 사용 후 반드시 close 해야 한다
+    Stream<Member> streamMemberAll(int fetchSize);
+
+    // count 쿼리 전략을 고를 수 있는 페이징 (CountMode 참고)
+    // findByAge는 조건이 있어서 ESTIMATED를 지원하지 않는다 (IllegalArgumentException)
+    CountedPage<Member> findByAge(int age, Pageable pageable, CountMode countMode);
+
+    CountedPage<Member> findMemberAllCountBy(Pageable pageable, CountMode countMode);
+
+    CountedPage<MemberProjection> findByNativeProjection(Pageable pageable, CountMode countMode);
+
+    // 구조가 같은 ShapedSpecification(MemberSpec)은 같은 JPQL을 재사용한다 (SpecificationPlanCache 참고)
+    List<Member> findAllCached(Specification<Member> spec);
+
+    // 이름이 많으면 in 절을 chunk-size 단위로 나눠서 병렬 조회 후 합친다 (순서 보장 X)
+    // 나눠서 조회한 결과는 별도 트랜잭션에서 읽은 준영속 엔티티다
+    List<Member> findByNamesChunked(Collection<String> names);
+
+    // 이름에 term이 포함된 회원을 식별자 순으로 최대 limit명 조회 (대소문자 무시)
+    // UsernameTrigramIndex로 후보를 찾고 DB 값으로 다시 확인하므로 테이블 전체를 읽지 않는다
+    // term이 3글자 미만이면 IllegalArgumentException (짧은 검색어는 findByUsernameStartingWith 사용)
+    List<Member> searchByUsername(String term, int limit);
 }
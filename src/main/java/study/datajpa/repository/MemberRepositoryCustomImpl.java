@@ -1,19 +1,396 @@
 package study.datajpa.repository;
 
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.config.AsyncConfig;
 import study.datajpa.entity.Member;
+import study.datajpa.search.UsernameTrigramIndex;
 
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @RequiredArgsConstructor
 public class MemberRepositoryCustomImpl implements MemberRepositoryCustom {
 
+    private static final String MEMBER_PROJECTION_SQL = "select m.member_id as id, m.username, t.name as teamName " +
+            "from member m left join team t on m.team_id = t.team_id";
+    private static final Map<String, String> MEMBER_PROJECTION_COLUMNS = Map.of(
+            "id", "m.member_id",
+            "username", "m.username",
+            "teamName", "t.name");
+
+    private final ProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+
     private final EntityManager em;
+    private final PageCounter pageCounter;
+    private final SpecificationPlanCache specificationPlanCache;
+    private final InClauseProperties inClauseProperties;
+    private final PlatformTransactionManager transactionManager;
+    @Qualifier(AsyncConfig.IN_CLAUSE_EXECUTOR)
+    private final ThreadPoolTaskExecutor inClauseExecutor;
+    private final UsernameTrigramIndex usernameTrigramIndex;
 
     @Override
     public List<Member> findMemberCustom() {
         return em.createQuery("select m from Member m")
                 .getResultList();
     }
+
+    @Override
+    public KeysetSlice<Member> findMemberKeyset(Sort sort, String cursor, int size) {
+        // 정렬 키가 유일하도록 식별자를 마지막 정렬 조건으로 추가
+        Sort keysetSort = sort.getOrderFor("id") == null ? sort.and(Sort.by("id")) : sort;
+        List<Sort.Order> orders = keysetSort.toList();
+
+        // null 위치를 DB 기본값에 맡기지 않고 커서 조건과 같은 순서로 명시한다
+        HibernateCriteriaBuilder cb = em.getEntityManagerFactory().unwrap(SessionFactory.class).getCriteriaBuilder();
+        CriteriaQuery<Member> query = cb.createQuery(Member.class);
+        Root<Member> m = query.from(Member.class);
+
+        if (cursor != null) {
+            query.where(seek(cb, m, orders, KeysetCursor.decode(cursor, orders)));
+        }
+        query.orderBy(orders.stream()
+                .<Order>map(order -> order.isAscending()
+                        ? cb.asc(path(m, order), nullsFirst(order))
+                        : cb.desc(path(m, order), nullsFirst(order)))
+                .toList());
+
+        // offset 없이 size + 1 건만 조회해서 다음 페이지 존재 여부 판단
+        List<Member> result = em.createQuery(query)
+                .setMaxResults(size + 1)
+                .getResultList();
+
+        if (result.size() <= size) {
+            return new KeysetSlice<>(result, null);
+        }
+
+        List<Member> content = result.subList(0, size);
+        BeanWrapper last = PropertyAccessorFactory.forBeanPropertyAccess(content.get(size - 1));
+        List<Object> lastValues = orders.stream()
+                .map(order -> last.getPropertyValue(order.getProperty()))
+                .toList();
+        return new KeysetSlice<>(new ArrayList<>(content), KeysetCursor.encode(orders, lastValues));
+    }
+
+    @Override
+    public Stream<Member> streamMemberAll(int fetchSize) {
+        // 읽기 전용이라 스냅샷을 만들지 않고, 2차 캐시에도 적재하지 않는다
+        ScrollableResults<Member> results = em.unwrap(Session.class)
+                .createQuery("select m from Member m left join fetch m.team", Member.class)
+                .setFetchSize(fetchSize)
+                .setReadOnly(true)
+                .setCacheMode(CacheMode.IGNORE)
+                .scroll(ScrollMode.FORWARD_ONLY);
+
+        Iterator<Member> iterator = new Iterator<>() {
+            private long count;
+            private Boolean hasNext;
+
+            @Override
+            public boolean hasNext() {
+                if (hasNext == null) {
+                    // fetchSize 건마다 영속성 컨텍스트를 비워서 이미 내보낸 엔티티가 쌓이지 않게 한다
+                    // (같은 영속성 컨텍스트의 다른 엔티티도 준영속이 되므로 전용 읽기 트랜잭션에서 사용)
+                    if (count > 0 && count % fetchSize == 0) {
+                        em.clear();
+                    }
+                    hasNext = results.next();
+                }
+                return hasNext;
+            }
+
+            @Override
+            public Member next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                hasNext = null;
+                count++;
+                return results.get();
+            }
+        };
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(results::close);
+    }
+
+    @Override
+    public CountedPage<Member> findByAge(int age, Pageable pageable, CountMode countMode) {
+        // 조건이 있어서 테이블 통계로는 건수를 추정할 수 없다
+        if (countMode == CountMode.ESTIMATED) {
+            throw new IllegalArgumentException("조건이 있는 조회는 추정 건수를 지원하지 않습니다");
+        }
+        String jpql = QueryUtils.applySorting("select m from Member m where m.age = :age", pageable.getSort(), "m");
+        List<Member> content = em.createQuery(jpql, Member.class)
+                .setParameter("age", age)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+
+        String countJpql = "select count(m) from Member m where m.age = :age";
+        return pageCounter.page(content, pageable, countMode, countJpql + " [" + age + "]",
+                () -> em.createQuery(countJpql, Long.class)
+                        .setParameter("age", age)
+                        .getSingleResult(),
+                null);
+    }
+
+    @Override
+    public CountedPage<Member> findMemberAllCountBy(Pageable pageable, CountMode countMode) {
+        String jpql = QueryUtils.applySorting("select m from Member m left join m.team t", pageable.getSort(), "m");
+        List<Member> content = em.createQuery(jpql, Member.class)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+
+        String countJpql = "select count(m.username) from Member m";
+        return pageCounter.page(content, pageable, countMode, countJpql,
+                () -> em.createQuery(countJpql, Long.class).getSingleResult(),
+                () -> estimatedRowCount("member"));
+    }
+
+    @Override
+    public CountedPage<MemberProjection> findByNativeProjection(Pageable pageable, CountMode countMode) {
+        String sql = MEMBER_PROJECTION_SQL + nativeOrderBy(pageable.getSort());
+        List<Object[]> rows = em.createNativeQuery(sql)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+
+        List<MemberProjection> content = rows.stream()
+                .map(this::toMemberProjection)
+                .toList();
+
+        String countSql = "select count(*) from member";
+        return pageCounter.page(content, pageable, countMode, countSql,
+                () -> ((Number) em.createNativeQuery(countSql).getSingleResult()).longValue(),
+                () -> estimatedRowCount("member"));
+    }
+
+    @Override
+    public List<Member> findAllCached(Specification<Member> spec) {
+        if (spec instanceof ShapedSpecification<Member> shaped) {
+            TypedQuery<Member> query = em.createQuery(specificationPlanCache.jpql(shaped, "Member"), Member.class);
+            List<Object> parameters = shaped.getParameters();
+            for (int i = 0; i < parameters.size(); i++) {
+                query.setParameter(i + 1, parameters.get(i));
+            }
+            return query.getResultList();
+        }
+
+        // 구조를 알 수 없는 Specification은 Criteria로 실행
+        specificationPlanCache.recordUncacheable();
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Member> query = cb.createQuery(Member.class);
+        Root<Member> m = query.from(Member.class);
+        Predicate predicate = spec.toPredicate(m, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return em.createQuery(query).getResultList();
+    }
+
+    @Override
+    public List<Member> findByNamesChunked(Collection<String> names) {
+        List<String> distinctNames = List.copyOf(new LinkedHashSet<>(names));
+        int chunkSize = Integer.highestOneBit(Math.max(1, inClauseProperties.getChunkSize()));
+        if (distinctNames.size() <= chunkSize) {
+            return findByNameChunk(distinctNames);
+        }
+
+        List<List<String>> chunks = new ArrayList<>();
+        for (int from = 0; from < distinctNames.size(); from += chunkSize) {
+            chunks.add(distinctNames.subList(from, Math.min(from + chunkSize, distinctNames.size())));
+        }
+
+        // 실행기 대기열을 넘치지 않도록 작업 수는 parallelism개로 제한하고, 각 작업이 조각을 번갈아 맡는다
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        int parallelism = Math.max(1, Math.min(inClauseProperties.getParallelism(), chunks.size()));
+        List<CompletableFuture<List<Member>>> futures = new ArrayList<>(parallelism);
+        for (int worker = 0; worker < parallelism; worker++) {
+            int first = worker;
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                List<Member> result = new ArrayList<>();
+                for (int i = first; i < chunks.size(); i += parallelism) {
+                    List<String> chunk = chunks.get(i);
+                    result.addAll(readOnlyTransaction.execute(status -> findByNameChunk(chunk)));
+                }
+                return result;
+            }, inClauseExecutor));
+        }
+
+        List<Member> members = new ArrayList<>(distinctNames.size());
+        try {
+            for (CompletableFuture<List<Member>> future : futures) {
+                members.addAll(future.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return members;
+    }
+
+    // hibernate.query.in_clause_parameter_padding: 값 개수를 2의 거듭제곱으로 채워서 SQL 종류를 줄인다
+    private List<Member> findByNameChunk(List<String> names) {
+        return em.createQuery("select m from Member m where m.username in :names", Member.class)
+                .setParameter("names", names)
+                .getResultList();
+    }
+
+    // 네이티브 SQL에는 JPQL 속성 경로를 쓸 수 없으므로 허용한 속성만 컬럼으로 바꾼다
+    // 같은 값이 있어도 페이지 경계가 흔들리지 않도록 마지막에 식별자 정렬을 붙인다
+    private String nativeOrderBy(Sort sort) {
+        StringJoiner orderBy = new StringJoiner(", ", " order by ", "");
+        for (Sort.Order order : sort) {
+            String column = MEMBER_PROJECTION_COLUMNS.get(order.getProperty());
+            if (column == null) {
+                throw new IllegalArgumentException("정렬할 수 없는 속성입니다: " + order.getProperty());
+            }
+            orderBy.add(column + (order.isAscending() ? " asc" : " desc"));
+        }
+        if (sort.getOrderFor("id") == null) {
+            orderBy.add("m.member_id asc");
+        }
+        return orderBy.toString();
+    }
+
+    private MemberProjection toMemberProjection(Object[] row) {
+        Map<String, Object> values = new HashMap<>();
+        values.put("id", row[0] == null ? null : ((Number) row[0]).longValue());
+        values.put("username", row[1]);
+        values.put("teamName", row[2]);
+        return projectionFactory.createProjection(MemberProjection.class, values);
+    }
+
+    // H2가 관리하는 테이블 통계의 추정 건수 (정확하지 않지만 count(*)보다 훨씬 싸다)
+    private long estimatedRowCount(String table) {
+        Number estimate = (Number) em.createNativeQuery("select row_count_estimate from information_schema.tables" +
+                        " where table_schema = schema() and table_name = :table")
+                .setParameter("table", table.toUpperCase())
+                .getSingleResult();
+        return estimate.longValue();
+    }
+
+    // (k1, k2, ..., kn) 이 커서 값보다 "뒤"에 있는 행 조건
+    // k1 > v1 or (k1 = v1 and k2 > v2) or ... (내림차순 키는 < 비교)
+    // null은 비교 연산으로 찾을 수 없으므로 is null / is not null 조건으로 바꾼다 (nullsFirst 참고)
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Predicate seek(CriteriaBuilder cb, Root<Member> m, List<Sort.Order> orders, List<String> values) {
+        List<Predicate> disjunction = new ArrayList<>();
+        List<Predicate> equalities = new ArrayList<>();
+        Predicate leadingBound = cb.conjunction();
+
+        for (int i = 0; i < orders.size(); i++) {
+            Sort.Order order = orders.get(i);
+            Path<Comparable> path = path(m, order);
+            Comparable value = (Comparable) KeysetCursor.convert(values.get(i), path.getJavaType());
+
+            Predicate after = after(cb, path, value, order);
+            Predicate equal = value == null ? cb.isNull(path) : cb.equal(path, value);
+            if (i == 0) {
+                // 첫 번째 키로 인덱스 범위 스캔이 가능하도록 중복 조건 추가
+                leadingBound = after == null ? equal : cb.or(after, equal);
+            }
+
+            if (after != null) {
+                List<Predicate> conjunction = new ArrayList<>(equalities);
+                conjunction.add(after);
+                disjunction.add(cb.and(conjunction.toArray(Predicate[]::new)));
+            }
+            equalities.add(equal);
+        }
+
+        return cb.and(leadingBound, cb.or(disjunction.toArray(Predicate[]::new)));
+    }
+
+    // 정렬 순서에서 value보다 뒤에 오는 값 조건 (뒤에 올 수 있는 값이 없으면 null)
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Predicate after(CriteriaBuilder cb, Path<Comparable> path, Comparable value, Sort.Order order) {
+        boolean nullsFirst = nullsFirst(order);
+        if (value == null) {
+            return nullsFirst ? cb.isNotNull(path) : null;
+        }
+        Predicate greater = order.isAscending() ? cb.greaterThan(path, value) : cb.lessThan(path, value);
+        return nullsFirst ? greater : cb.or(greater, cb.isNull(path));
+    }
+
+    // Sort.Order에 NULLS_FIRST를 지정하지 않으면 방향과 관계없이 null은 마지막
+    private boolean nullsFirst(Sort.Order order) {
+        return order.getNullHandling() == Sort.NullHandling.NULLS_FIRST;
+    }
+
+    private <T> Path<T> path(Root<Member> m, Sort.Order order) {
+        if (order.getProperty().contains(".")) {
+            throw new IllegalArgumentException("키셋 페이징은 Member의 단일 속성으로만 정렬할 수 있습니다: " + order.getProperty());
+        }
+        return m.get(order.getProperty());
+    }
+
+    @Override
+    public List<Member> searchByUsername(String term, int limit) {
+        if (term == null || term.isBlank()) {
+            throw new IllegalArgumentException("검색어를 입력해야 합니다");
+        }
+        // 색인 후보 중 DB 확인에서 빠지는 행이 있으므로 limit개가 확인되거나 후보가 떨어질 때까지 이어서 가져온다
+        String normalized = term.toLowerCase(Locale.ROOT);
+        List<Member> result = new ArrayList<>(limit);
+        Long afterId = null;
+        while (result.size() < limit) {
+            int wanted = limit - result.size();
+            List<Long> ids = usernameTrigramIndex.search(term, afterId, wanted);
+            if (ids.isEmpty()) {
+                break;
+            }
+
+            List<Member> members = em.createQuery("select m from Member m where m.id in :ids", Member.class)
+                    .setParameter("ids", ids)
+                    .getResultList();
+
+            // 벌크 연산이나 다른 경로로 바뀐 행은 색인이 모르므로 DB 값으로 다시 확인한다
+            // 색인은 고치지 않는다. 복제본이 지연됐거나 호출자의 트랜잭션이 커밋 전이면 이 조회 결과가 커밋된 최신 값이 아니다
+            // (색인은 UsernameIndexListener와 UsernameIndexLoader.rebuild()만 고친다)
+            for (Member member : members) {
+                String username = member.getUsername();
+                if (username != null && username.toLowerCase(Locale.ROOT).contains(normalized)) {
+                    result.add(member);
+                }
+            }
+
+            if (ids.size() < wanted) {
+                break;
+            }
+            afterId = ids.get(ids.size() - 1);
+        }
+
+        result.sort(Comparator.comparing(Member::getId));
+        return result;
+    }
 }
@@ -6,10 +6,17 @@ import org.springframework.util.StringUtils;
 import study.datajpa.entity.Member;
 import study.datajpa.entity.Team;
 
+import java.util.List;
+
+/**
+ * 조건마다 Criteria와 JPQL 조각을 함께 정의한다 (ShapedSpecification).
+ * 두 정의가 같은 결과를 내는지 MemberRepositoryTest.shapedSpecificationsMatchCriteria가
+ * 이 클래스의 모든 조건(String 파라미터 하나)과 그 조합을 두 경로로 실행해서 비교한다.
+ */
 public class MemberSpec {
 
-    public static Specification<Member> teamName(final String teamName) {
-        return new Specification<Member>() {
+    public static ShapedSpecification<Member> teamName(final String teamName) {
+        Specification<Member> criteria = new Specification<Member>() {
             @Override
             public Predicate toPredicate(Root<Member> root, CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder) {
                 Join<Member, Team> t = root.join("team", JoinType.INNER); // 회원과 조인
@@ -21,10 +28,24 @@ public class MemberSpec {
                 return criteriaBuilder.equal(t.get("name"), teamName);
             }
         };
+
+        // 팀 이름이 없으면 조인만 하고 조건은 없다
+        if (!StringUtils.hasText(teamName)) {
+            return new ShapedSpecification<>(criteria, List.of("join m.team t"), null, List.of());
+        }
+        return new ShapedSpecification<>(criteria, List.of("join m.team t"), "t.name = ?", List.of(teamName));
     }
 
-    public static Specification<Member> username(final String username) {
-        return (Specification<Member>) (root, query, builder) ->
+    public static ShapedSpecification<Member> username(final String username) {
+        // null은 = 비교로 찾을 수 없으므로 두 경로 모두 is null 조건으로 쓴다
+        if (username == null) {
+            Specification<Member> isNull = (root, query, builder) -> builder.isNull(root.get("username"));
+            return new ShapedSpecification<>(isNull, List.of(), "m.username is null", List.of());
+        }
+
+        Specification<Member> criteria = (root, query, builder) ->
                 builder.equal(root.get("username"), username);
+
+        return new ShapedSpecification<>(criteria, List.of(), "m.username = ?", List.of(username));
     }
 }
@@ -0,0 +1,5 @@
+package study.datajpa.repository;
+
+// 식별자로 이름만 필요한 조회용. 엔티티가 아니므로 영속성 컨텍스트에 스냅샷이 남지 않는다
+public record MemberSummary(Long id, String username) {
+}
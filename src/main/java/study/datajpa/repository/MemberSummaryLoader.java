@@ -0,0 +1,31 @@
+package study.datajpa.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 요청 단위 MemberSummary 식별자 맵.
+ * 같은 요청에서 같은 식별자는 한 번만 조회하고, 없는 식별자도 기억해서 다시 조회하지 않는다.
+ * 요청 스코프 빈이라 HTTP 요청 밖(배치, 비동기 스레드)에서는 사용할 수 없다.
+ */
+@Component
+@RequestScope
+@RequiredArgsConstructor
+public class MemberSummaryLoader {
+
+    private final MemberRepository memberRepository;
+    // 값이 null이면 없는 식별자
+    private final Map<Long, MemberSummary> summaries = new HashMap<>();
+
+    public Optional<MemberSummary> get(Long id) {
+        if (!summaries.containsKey(id)) {
+            summaries.put(id, memberRepository.findSummaryById(id).orElse(null));
+        }
+        return Optional.ofNullable(summaries.get(id));
+    }
+}
@@ -0,0 +1,5 @@
+package study.datajpa.repository;
+
+// NestedClosedProjections, MemberProjection 대신 JPQL 생성자 표현식으로 바로 생성
+public record MemberTeamRecord(Long id, String username, String teamName) {
+}
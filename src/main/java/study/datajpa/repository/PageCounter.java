@@ -0,0 +1,111 @@
+package study.datajpa.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * 페이지 조회의 전체 건수를 결정한다.
+ * 내용은 pageSize + 1 건까지 조회해서 넘기고, 마지막 페이지면 count 쿼리 없이 전체 건수를 계산한다.
+ * 캐시된 count는 ttl 동안 재사용하므로 그 사이의 저장/삭제는 반영되지 않을 수 있다.
+ * 캐시가 maxEntries를 넘으면 가장 오래 사용하지 않은 키부터 버린다 (LRU).
+ */
+@Component
+public class PageCounter {
+
+    private final Map<String, CachedCount> cache;
+    private final long ttlNanos;
+
+    public PageCounter(@Value("${datajpa.count-cache.ttl:10s}") Duration ttl,
+                       @Value("${datajpa.count-cache.max-entries:10000}") int maxEntries) {
+        this.ttlNanos = ttl.toNanos();
+        // 접근 순서로 정렬되는 LinkedHashMap은 조회도 구조를 바꾸므로 전체를 동기화한다
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<String, CachedCount>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedCount> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    /**
+     * @param content        pageSize + 1 건까지 조회한 결과
+     * @param countKey       count 쿼리와 파라미터로 만든 캐시 키
+     * @param estimatedCount 추정 건수를 구할 수 없으면 null (이때 ESTIMATED는 IllegalArgumentException)
+     */
+    public <T> CountedPage<T> page(List<T> content, Pageable pageable, CountMode mode,
+                                   String countKey, LongSupplier exactCount, LongSupplier estimatedCount) {
+        if (mode == CountMode.ESTIMATED && estimatedCount == null) {
+            throw new IllegalArgumentException("추정 건수를 구할 수 없는 쿼리입니다. EXACT나 CACHED를 사용하세요");
+        }
+        int pageSize = pageable.getPageSize();
+        boolean hasNext = content.size() > pageSize;
+        List<T> pageContent = hasNext ? content.subList(0, pageSize) : content;
+        long offset = pageable.getOffset();
+
+        // 마지막 페이지면 offset + 조회 건수가 곧 전체 건수
+        if (!hasNext && (!pageContent.isEmpty() || offset == 0)) {
+            return new CountedPage<>(pageContent, pageable, offset + pageContent.size(), true);
+        }
+
+        if (mode == CountMode.EXACT) {
+            return new CountedPage<>(pageContent, pageable, exactCount.getAsLong(), true);
+        }
+
+        // 추정값이나 캐시된 값이 이미 확인한 건수보다 작으면 다음 페이지가 사라지므로 보정
+        long seen = offset + pageContent.size() + (hasNext ? 1 : 0);
+        if (mode == CountMode.ESTIMATED) {
+            return new CountedPage<>(pageContent, pageable, Math.max(estimatedCount.getAsLong(), seen), false);
+        }
+
+        CachedCount cached = cached(countKey);
+        if (cached != null) {
+            return new CountedPage<>(pageContent, pageable, Math.max(cached.count, seen), false);
+        }
+        long count = cachedCount(countKey, exactCount);
+        return new CountedPage<>(pageContent, pageable, count, true);
+    }
+
+    // 캐시에 있으면 재사용하고 없거나 만료되었으면 새로 센다
+    public long cachedCount(String countKey, LongSupplier exactCount) {
+        CachedCount cached = cached(countKey);
+        if (cached != null) {
+            return cached.count;
+        }
+
+        long count = exactCount.getAsLong();
+        cache.put(countKey, new CachedCount(count, System.nanoTime() + ttlNanos));
+        return count;
+    }
+
+    // 만료된 항목은 조회할 때 지운다
+    private CachedCount cached(String countKey) {
+        CachedCount cached = cache.get(countKey);
+        if (cached != null && cached.isExpired()) {
+            cache.remove(countKey, cached);
+            return null;
+        }
+        return cached;
+    }
+
+    private static class CachedCount {
+        private final long count;
+        private final long expiresAt;
+
+        CachedCount(long count, long expiresAt) {
+            this.count = count;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired() {
+            return System.nanoTime() - expiresAt > 0;
+        }
+    }
+}
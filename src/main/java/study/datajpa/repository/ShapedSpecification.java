@@ -0,0 +1,81 @@
+package study.datajpa.repository;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.Getter;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 쿼리 구조(JPQL 조각)와 파라미터 값을 나눠서 들고 있는 Specification.
+ * findAll(spec)에서는 Criteria로 그대로 동작하고, findAllCached(spec)에 넘기면 구조가 같은 조건끼리 같은 JPQL을 재사용한다.
+ * JPQL 조각의 루트 별칭은 m, 파라미터 자리는 ? 로 쓴다.
+ */
+public class ShapedSpecification<T> implements Specification<T> {
+
+    private final Specification<T> criteria;
+    private final Set<String> joins;
+    // 조건이 없으면 null
+    private final String where;
+    @Getter
+    private final List<Object> parameters;
+
+    public ShapedSpecification(Specification<T> criteria, List<String> joins, String where, List<Object> parameters) {
+        this.criteria = criteria;
+        this.joins = new LinkedHashSet<>(joins);
+        this.where = where;
+        this.parameters = parameters;
+    }
+
+    @Override
+    public Predicate toPredicate(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder) {
+        return criteria.toPredicate(root, query, criteriaBuilder);
+    }
+
+    // 둘 다 ShapedSpecification이면 구조도 합친다. 아니면 일반 Criteria 조합
+    @Override
+    public Specification<T> and(Specification<T> other) {
+        Specification<T> composed = Specification.super.and(other);
+        if (!(other instanceof ShapedSpecification<T> shaped)) {
+            return composed;
+        }
+
+        List<String> mergedJoins = new ArrayList<>(joins);
+        mergedJoins.addAll(shaped.joins);
+        String mergedWhere = where == null ? shaped.where
+                : shaped.where == null ? where
+                : "(" + where + ") and (" + shaped.where + ")";
+        List<Object> mergedParameters = new ArrayList<>(parameters);
+        mergedParameters.addAll(shaped.parameters);
+        return new ShapedSpecification<>(composed, mergedJoins, mergedWhere, mergedParameters);
+    }
+
+    // 파라미터 값을 제외한 쿼리 구조. 같으면 같은 JPQL이 만들어진다
+    public String getShape() {
+        return String.join(" ", joins) + (where == null ? "" : " where " + where);
+    }
+
+    String toJpql(String entityName) {
+        StringBuilder jpql = new StringBuilder("select m from ").append(entityName).append(" m");
+        for (String join : joins) {
+            jpql.append(' ').append(join);
+        }
+        if (where != null) {
+            jpql.append(" where ");
+            int position = 1;
+            for (char c : where.toCharArray()) {
+                jpql.append(c);
+                if (c == '?') {
+                    jpql.append(position++);
+                }
+            }
+        }
+        return jpql.toString();
+    }
+}
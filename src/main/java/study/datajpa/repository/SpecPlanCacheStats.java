@@ -0,0 +1,30 @@
+package study.datajpa.repository;
+
+import lombok.Getter;
+
+@Getter
+public class SpecPlanCacheStats {
+    private final int shapes;
+    private final long hits;
+    private final long misses;
+    // ShapedSpecification이 아니어서 Criteria로 실행한 횟수
+    private final long uncacheable;
+    // Hibernate 쿼리 계획 캐시 (hibernate.generate_statistics 가 꺼져 있으면 0)
+    private final long queryPlanCacheHits;
+    private final long queryPlanCacheMisses;
+
+    public SpecPlanCacheStats(int shapes, long hits, long misses, long uncacheable,
+                              long queryPlanCacheHits, long queryPlanCacheMisses) {
+        this.shapes = shapes;
+        this.hits = hits;
+        this.misses = misses;
+        this.uncacheable = uncacheable;
+        this.queryPlanCacheHits = queryPlanCacheHits;
+        this.queryPlanCacheMisses = queryPlanCacheMisses;
+    }
+
+    public double getHitRatio() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+}
@@ -0,0 +1,55 @@
+package study.datajpa.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 구조가 같은 Specification을 같은 JPQL 문자열로 바꿔 준다.
+ * Criteria 쿼리는 호출마다 새 쿼리 트리라서 Hibernate가 매번 SQL을 다시 만들지만,
+ * JPQL 문자열은 Hibernate 쿼리 계획 캐시(hibernate.query.plan_cache_max_size)에서 해석 결과를 재사용한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class SpecificationPlanCache {
+
+    // 구조 수는 코드에서 조합 가능한 경우의 수로 제한되지만, 잘못 쓰더라도 무한히 커지지 않도록
+    private static final int MAX_SHAPES = 1000;
+
+    private final EntityManagerFactory emf;
+    private final Map<String, String> plans = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder uncacheable = new LongAdder();
+
+    public String jpql(ShapedSpecification<?> spec, String entityName) {
+        String key = entityName + '|' + spec.getShape();
+        String jpql = plans.get(key);
+        if (jpql != null) {
+            hits.increment();
+            return jpql;
+        }
+        misses.increment();
+        jpql = spec.toJpql(entityName);
+        if (plans.size() < MAX_SHAPES) {
+            plans.putIfAbsent(key, jpql);
+        }
+        return jpql;
+    }
+
+    void recordUncacheable() {
+        uncacheable.increment();
+    }
+
+    public SpecPlanCacheStats stats() {
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        return new SpecPlanCacheStats(plans.size(), hits.sum(), misses.sum(), uncacheable.sum(),
+                statistics.getQueryPlanCacheHitCount(), statistics.getQueryPlanCacheMissCount());
+    }
+}
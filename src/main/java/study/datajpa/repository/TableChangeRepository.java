@@ -0,0 +1,13 @@
+package study.datajpa.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import study.datajpa.entity.TableChange;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface TableChangeRepository extends JpaRepository<TableChange, String> {
+
+    // 목록 조건부 요청(ETag)용 변경 감지 값, 기본 키 조회라서 테이블 크기와 상관없이 싸다
+    List<TableChange> findByTableNameInOrderByTableName(Collection<String> tableNames);
+}
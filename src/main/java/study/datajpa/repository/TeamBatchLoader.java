@@ -0,0 +1,52 @@
+package study.datajpa.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * 요청 단위 Team 배치 로더.
+ * 회원 목록이 참조하는 팀 식별자를 모아서 in 쿼리 한 번으로 조회하고, 요청이 끝날 때까지 재사용한다.
+ * 지연 로딩 프록시는 식별자 조회(getId)만으로는 초기화되지 않으므로 회원 수만큼 추가 쿼리가 나가지 않는다.
+ * 요청 스코프 빈이라 HTTP 요청 밖(배치, 비동기 스레드)에서는 사용할 수 없다.
+ */
+@Component
+@RequestScope
+@RequiredArgsConstructor
+public class TeamBatchLoader {
+
+    private final TeamRepository teamRepository;
+    private final Map<Long, Team> teams = new HashMap<>();
+
+    public void load(Collection<Member> members) {
+        Set<Long> missingIds = members.stream()
+                .map(Member::getTeam)
+                .filter(Objects::nonNull)
+                .map(Team::getId)
+                .filter(id -> !teams.containsKey(id))
+                .collect(Collectors.toSet());
+
+        if (missingIds.isEmpty()) {
+            return;
+        }
+        for (Team team : teamRepository.findAllById(missingIds)) {
+            teams.put(team.getId(), team);
+        }
+    }
+
+    // load로 미리 불러온 팀만 찾는다. 없으면 null
+    public Team get(Member member) {
+        Team team = member.getTeam();
+        return team == null ? null : teams.get(team.getId());
+    }
+
+    public String getTeamName(Member member) {
+        Team team = get(member);
+        return team == null ? null : team.getName();
+    }
+}
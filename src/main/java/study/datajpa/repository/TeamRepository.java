@@ -1,7 +1,16 @@
 package study.datajpa.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.scheduling.annotation.Async;
 import study.datajpa.entity.Team;
 
-public interface TeamRepository extends JpaRepository<Team, Long> {
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public interface TeamRepository extends JpaRepository<Team, Long>, BulkSaveRepository<Team> {
+
+    @Async("repositoryExecutor")
+    @Query("select t from Team t")
+    CompletableFuture<List<Team>> findAllAsync();
 }
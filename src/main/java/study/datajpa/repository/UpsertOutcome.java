@@ -0,0 +1,18 @@
+package study.datajpa.repository;
+
+import java.sql.Statement;
+
+public enum UpsertOutcome {
+    INSERTED,
+    // 이미 같은 식별자의 행이 있어서 그대로 둔 경우
+    EXISTING,
+    // 드라이버가 배치 결과로 건수를 알려주지 않은 경우 (Statement.SUCCESS_NO_INFO)
+    UNKNOWN;
+
+    static UpsertOutcome of(int updateCount) {
+        if (updateCount == Statement.SUCCESS_NO_INFO) {
+            return UNKNOWN;
+        }
+        return updateCount > 0 ? INSERTED : EXISTING;
+    }
+}
@@ -0,0 +1,5 @@
+package study.datajpa.repository;
+
+// 레코드 기반 Projection: 프록시 없이 생성자로 바로 생성 (UsernameOnlyDto와 같은 비용)
+public record UsernameRecord(String username) {
+}
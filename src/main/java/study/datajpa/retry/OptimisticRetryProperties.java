@@ -0,0 +1,18 @@
+package study.datajpa.retry;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "datajpa.optimistic-retry")
+public class OptimisticRetryProperties {
+    // 첫 시도를 포함한 최대 실행 횟수
+    private int maxAttempts = 5;
+    // 재시도 대기 시간 상한은 initialBackoff * 2^(재시도 횟수 - 1), maxBackoff를 넘지 않는다
+    private Duration initialBackoff = Duration.ofMillis(5);
+    private Duration maxBackoff = Duration.ofMillis(200);
+}
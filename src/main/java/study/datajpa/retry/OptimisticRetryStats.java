@@ -0,0 +1,25 @@
+package study.datajpa.retry;
+
+import lombok.Getter;
+
+@Getter
+public class OptimisticRetryStats {
+    // 트랜잭션 실행 횟수 (재시도 포함)
+    private final long attempts;
+    // 버전 충돌로 실패한 실행 횟수
+    private final long conflicts;
+    private final long retries;
+    // 재시도 횟수를 모두 써서 예외를 던진 작업 수
+    private final long exhausted;
+
+    public OptimisticRetryStats(long attempts, long conflicts, long retries, long exhausted) {
+        this.attempts = attempts;
+        this.conflicts = conflicts;
+        this.retries = retries;
+        this.exhausted = exhausted;
+    }
+
+    public double getConflictRatio() {
+        return attempts == 0 ? 0 : (double) conflicts / attempts;
+    }
+}
@@ -0,0 +1,99 @@
+package study.datajpa.retry;
+
+import jakarta.persistence.OptimisticLockException;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.StaleStateException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 낙관적 락(@Version) 충돌 시 트랜잭션을 처음부터 다시 실행한다.
+ * <p>
+ * 충돌이 난 영속성 컨텍스트는 재사용할 수 없으므로 시도마다 새 트랜잭션(REQUIRES_NEW)에서 조회부터 다시 해야 한다.
+ * 콜백은 여러 번 실행될 수 있으므로 트랜잭션 밖의 부수 효과(외부 호출 등)를 넣지 않는다.
+ * 재시도 사이에는 지수 백오프에 지터(0 ~ 상한 사이 임의 값)를 더해서 충돌한 스레드들이 다시 동시에 부딪히지 않게 한다.
+ */
+@Slf4j
+@Component
+public class OptimisticRetryTemplate {
+
+    private final TransactionTemplate transactionTemplate;
+    private final OptimisticRetryProperties properties;
+
+    private final LongAdder attempts = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder exhausted = new LongAdder();
+
+    public OptimisticRetryTemplate(PlatformTransactionManager transactionManager, OptimisticRetryProperties properties) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.properties = properties;
+    }
+
+    public <T> T execute(TransactionCallback<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            attempts.increment();
+            try {
+                return transactionTemplate.execute(action);
+            } catch (RuntimeException e) {
+                if (!isConflict(e)) {
+                    throw e;
+                }
+                conflicts.increment();
+                if (attempt >= properties.getMaxAttempts()) {
+                    exhausted.increment();
+                    log.warn("낙관적 락 충돌 재시도 초과: {}회 시도", attempt);
+                    throw e;
+                }
+                retries.increment();
+                backoff(attempt);
+            }
+        }
+    }
+
+    public void executeWithoutResult(Consumer<TransactionStatus> action) {
+        execute(status -> {
+            action.accept(status);
+            return null;
+        });
+    }
+
+    public OptimisticRetryStats stats() {
+        return new OptimisticRetryStats(attempts.sum(), conflicts.sum(), retries.sum(), exhausted.sum());
+    }
+
+    // 커밋 시점 충돌은 JpaTransactionManager가 ObjectOptimisticLockingFailureException으로 변환하지만,
+    // 콜백에서 EntityManager.flush()를 직접 호출하면 JPA 예외가 그대로 올라온다
+    static boolean isConflict(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof OptimisticLockingFailureException
+                    || t instanceof OptimisticLockException
+                    || t instanceof StaleStateException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void backoff(int attempt) {
+        long ceiling = Math.min(properties.getMaxBackoff().toNanos(),
+                properties.getInitialBackoff().toNanos() << Math.min(attempt - 1, 20));
+        long sleepNanos = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        try {
+            Thread.sleep(sleepNanos / 1_000_000, (int) (sleepNanos % 1_000_000));
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("재시도 대기 중 인터럽트되었습니다", ie);
+        }
+    }
+}
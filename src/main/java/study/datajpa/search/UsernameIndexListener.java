@@ -0,0 +1,49 @@
+package study.datajpa.search;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.datajpa.entity.Member;
+
+/**
+ * Member 변경을 커밋 후에 UsernameTrigramIndex에 반영한다. 롤백된 변경은 반영하지 않는다.
+ * 스프링 부트가 Hibernate에 스프링 빈 컨테이너를 설정하므로 엔티티 리스너도 스프링 빈으로 주입받는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class UsernameIndexListener {
+
+    private final UsernameTrigramIndex index;
+
+    @PostPersist
+    @PostUpdate
+    public void saved(Member member) {
+        // 커밋 전에 엔티티가 다시 바뀌면 그때 다시 호출되므로 현재 값을 기억해 둔다
+        Long id = member.getId();
+        String username = member.getUsername();
+        afterCommit(() -> index.put(id, username));
+    }
+
+    @PostRemove
+    public void removed(Member member) {
+        Long id = member.getId();
+        afterCommit(() -> index.remove(id));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
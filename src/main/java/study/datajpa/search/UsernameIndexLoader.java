@@ -0,0 +1,94 @@
+package study.datajpa.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.MemberSummary;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 회원 이름 색인을 DB에서 다시 만든다 (식별자 순서로 나눠 읽기).
+ * 시작 시, 설정한 주기마다, 그리고 이름을 바꾸는 벌크 작업이 끝난 뒤 {@link #rebuild()}를 호출해서 실행한다.
+ * <p>
+ * 색인을 비우지 않고 제자리에서 고치므로 재구성 중에도 검색할 수 있다.
+ * 재구성 중에 커밋된 변경이 읽어 둔 이전 값으로 덮이면 다음 재구성에서 바로잡힌다.
+ * <p>
+ * 읽기 전용 트랜잭션은 복제본으로 갈 수 있다. 복제 지연된 값으로 색인을 고치거나 지우지 않도록
+ * 읽기/쓰기 트랜잭션으로 primary에서 읽는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UsernameIndexLoader implements ApplicationRunner, DisposableBean {
+
+    private static final int BATCH_SIZE = 10_000;
+
+    private final MemberRepository memberRepository;
+    private final UsernameTrigramIndex index;
+    private final UsernameSearchProperties properties;
+    private final PlatformTransactionManager transactionManager;
+    private ScheduledExecutorService scheduler;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (properties.isRebuildOnStartup()) {
+            rebuild();
+        }
+        Duration interval = properties.getRebuildInterval();
+        if (interval != null && interval.isPositive()) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("username-index-"));
+            scheduler.scheduleWithFixedDelay(this::rebuildQuietly,
+                    interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // 동시에 두 번 재구성하지 않는다
+    public synchronized void rebuild() {
+        TransactionTemplate primary = new TransactionTemplate(transactionManager);
+        Set<Long> stale = index.ids();
+        Long lastId = Long.MIN_VALUE;
+        List<MemberSummary> batch;
+        do {
+            Long afterId = lastId;
+            batch = primary.execute(status ->
+                    memberRepository.findSummariesAfter(afterId, PageRequest.ofSize(BATCH_SIZE)));
+            for (MemberSummary summary : batch) {
+                index.put(summary.id(), summary.username());
+                stale.remove(summary.id());
+                lastId = summary.id();
+            }
+        } while (batch.size() == BATCH_SIZE);
+        // 재구성 전에 색인에 있었는데 DB에 없는 식별자만 지운다 (재구성 중에 추가된 식별자는 남긴다)
+        stale.forEach(index::remove);
+        log.info("회원 이름 색인 재구성 완료: {}건, 제거 {}건", index.size(), stale.size());
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("회원 이름 색인 재구성 실패", e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package study.datajpa.search;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "datajpa.username-search")
+public class UsernameSearchProperties {
+    // 시작 시 DB에서 색인 생성
+    private boolean rebuildOnStartup = true;
+    // 주기적 재구성 간격, 없으면 하지 않는다 (벌크 연산으로 바뀐 이름을 반영)
+    private Duration rebuildInterval;
+}
@@ -0,0 +1,144 @@
+package study.datajpa.search;
+
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * 회원 이름 부분 문자열 검색용 메모리 trigram 색인 (대소문자 무시).
+ * trigram마다 회원 식별자를 오름차순으로 보관하고, 검색어의 trigram 목록을 식별자 순으로 교차하다가
+ * limit개를 찾으면 멈춘다. 검색 비용은 테이블 크기가 아니라 가장 짧은 목록에서 limit개를 찾을 때까지 읽은 길이에 비례한다.
+ * 3글자 미만 검색어는 trigram으로 좁힐 수 없으므로 받지 않는다 (접두사 검색 사용).
+ * <p>
+ * 커밋된 엔티티 변경만 UsernameIndexListener가 반영한다. 벌크 JPQL/네이티브 쿼리로 바꾼 이름은
+ * 다음 재구성({@link UsernameIndexLoader#rebuild()}) 전까지 색인에 없으므로 검색되지 않는다.
+ * 이름을 바꾸는 벌크 작업은 끝난 뒤 재구성을 호출하거나 주기적 재구성을 켜야 한다 (datajpa.username-search.rebuild-interval).
+ * 검색 결과는 반드시 DB 값으로 다시 확인해야 한다 (MemberRepository.searchByUsername).
+ * 확인에서 빠진 후보로 색인을 고치지는 않는다. 복제본이나 커밋 전 트랜잭션에서 읽은 값일 수 있기 때문이다.
+ */
+@Component
+public class UsernameTrigramIndex {
+
+    public static final int MIN_TERM_LENGTH = 3;
+
+    // 식별자 -> 소문자 이름
+    private final Map<Long, String> usernames = new ConcurrentHashMap<>();
+    // trigram -> 식별자 (오름차순)
+    private final Map<String, NavigableSet<Long>> postings = new ConcurrentHashMap<>();
+
+    public synchronized void put(Long id, String username) {
+        if (username == null) {
+            remove(id);
+            return;
+        }
+        String normalized = normalize(username);
+        // 재구성할 때 대부분은 그대로이므로 바뀌지 않았으면 목록을 건드리지 않는다
+        if (normalized.equals(usernames.get(id))) {
+            return;
+        }
+        remove(id);
+        usernames.put(id, normalized);
+        for (String gram : trigrams(normalized)) {
+            postings.computeIfAbsent(gram, key -> new ConcurrentSkipListSet<>()).add(id);
+        }
+    }
+
+    public synchronized void remove(Long id) {
+        String old = usernames.remove(id);
+        if (old == null) {
+            return;
+        }
+        for (String gram : trigrams(old)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(gram, ids);
+                }
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        usernames.clear();
+        postings.clear();
+    }
+
+    public List<Long> search(String term, int limit) {
+        return search(term, null, limit);
+    }
+
+    /**
+     * 이름에 term이 포함된 회원 식별자를 afterId 다음부터 오름차순으로 최대 limit개 반환한다.
+     *
+     * @param afterId 이전 결과의 마지막 식별자, 처음이면 null
+     * @throws IllegalArgumentException 검색어가 3글자 미만이면
+     */
+    public List<Long> search(String term, Long afterId, int limit) {
+        String normalized = normalize(term);
+        if (normalized.length() < MIN_TERM_LENGTH) {
+            throw new IllegalArgumentException("부분 문자열 검색어는 " + MIN_TERM_LENGTH + "글자 이상이어야 합니다: " + term);
+        }
+
+        List<NavigableSet<Long>> lists = new ArrayList<>();
+        for (String gram : trigrams(normalized)) {
+            NavigableSet<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return List.of();
+            }
+            lists.add(ids);
+        }
+        // 가장 짧은 목록을 순서대로 읽으면서 나머지 목록에 있는지 확인한다
+        lists.sort(Comparator.comparingInt(Set::size));
+        NavigableSet<Long> smallest = afterId == null ? lists.get(0) : lists.get(0).tailSet(afterId, false);
+        List<NavigableSet<Long>> others = lists.subList(1, lists.size());
+
+        List<Long> matches = new ArrayList<>(Math.min(limit, 64));
+        for (Long id : smallest) {
+            if (matches.size() >= limit) {
+                break;
+            }
+            if (!containsAll(others, id)) {
+                continue;
+            }
+            // trigram이 모두 있어도 순서가 다를 수 있으므로 이름으로 확인한다
+            String username = usernames.get(id);
+            if (username != null && username.contains(normalized)) {
+                matches.add(id);
+            }
+        }
+        return matches;
+    }
+
+    public int size() {
+        return usernames.size();
+    }
+
+    // 색인된 식별자 사본 (재구성 시 DB에 없는 식별자를 찾는 데 사용)
+    public Set<Long> ids() {
+        return new HashSet<>(usernames.keySet());
+    }
+
+    static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    static Set<String> trigrams(String normalized) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + MIN_TERM_LENGTH <= normalized.length(); i++) {
+            grams.add(normalized.substring(i, i + MIN_TERM_LENGTH));
+        }
+        return grams;
+    }
+
+    private static boolean containsAll(List<NavigableSet<Long>> lists, Long id) {
+        for (NavigableSet<Long> ids : lists) {
+            if (!ids.contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
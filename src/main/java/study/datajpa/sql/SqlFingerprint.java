@@ -0,0 +1,94 @@
+package study.datajpa.sql;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * SQL을 값과 무관한 형태(fingerprint)로 정규화한다.
+ * 문자열/숫자 리터럴은 ?, in 목록은 in (?+), 공백은 한 칸, 주석은 제거하고 소문자로 바꾼다.
+ * <pre>
+ * select * from member where username = 'kim' and age in (10, 20, 30)
+ * -> select * from member where username = ? and age in (?+)
+ * </pre>
+ */
+public final class SqlFingerprint {
+
+    private static final Pattern IN_LIST = Pattern.compile("\\bin ?\\( ?\\?(?: ?, ?\\?)* ?\\)");
+
+    private SqlFingerprint() {
+    }
+
+    public static String of(String sql) {
+        StringBuilder out = new StringBuilder(sql.length());
+        int length = sql.length();
+        int i = 0;
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (c == '\'') {
+                // 문자열 리터럴 ('' 는 이스케이프된 따옴표)
+                i++;
+                while (i < length) {
+                    if (sql.charAt(i) == '\'') {
+                        if (i + 1 < length && sql.charAt(i + 1) == '\'') {
+                            i += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    i++;
+                }
+                out.append('?');
+                i++;
+            } else if (c == '"' || c == '`') {
+                // 따옴표 식별자는 그대로
+                int end = sql.indexOf(c, i + 1);
+                end = end < 0 ? length - 1 : end;
+                out.append(sql, i, end + 1);
+                i = end + 1;
+            } else if (c == '-' && i + 1 < length && sql.charAt(i + 1) == '-') {
+                int end = sql.indexOf('\n', i);
+                i = end < 0 ? length : end;
+            } else if (c == '/' && i + 1 < length && sql.charAt(i + 1) == '*') {
+                int end = sql.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 2;
+            } else if (Character.isWhitespace(c)) {
+                while (i < length && Character.isWhitespace(sql.charAt(i))) {
+                    i++;
+                }
+                if (out.length() > 0 && out.charAt(out.length() - 1) != ' ') {
+                    out.append(' ');
+                }
+            } else if (Character.isDigit(c) && !isIdentifierPart(out)) {
+                // 숫자 리터럴 (식별자 중간의 숫자는 제외: member0, t1_0)
+                while (i < length && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+                    i++;
+                }
+                out.append('?');
+            } else {
+                out.append(Character.toLowerCase(c));
+                i++;
+            }
+        }
+
+        int end = out.length();
+        while (end > 0 && out.charAt(end - 1) == ' ') {
+            end--;
+        }
+        out.setLength(end);
+
+        String normalized = out.toString();
+        if (normalized.indexOf('?') >= 0) {
+            Matcher matcher = IN_LIST.matcher(normalized);
+            normalized = matcher.replaceAll("in (?+)");
+        }
+        return normalized;
+    }
+
+    private static boolean isIdentifierPart(StringBuilder out) {
+        if (out.length() == 0) {
+            return false;
+        }
+        char last = out.charAt(out.length() - 1);
+        return Character.isLetterOrDigit(last) || last == '_' || last == '$';
+    }
+}
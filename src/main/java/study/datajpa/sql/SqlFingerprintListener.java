@@ -0,0 +1,75 @@
+package study.datajpa.sql;
+
+import com.p6spy.engine.common.PreparedStatementInformation;
+import com.p6spy.engine.common.ResultSetInformation;
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.JdbcEventListener;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+
+// p6spy-spring-boot-starter가 JdbcEventListener 빈을 자동으로 등록한다
+@Component
+@RequiredArgsConstructor
+public class SqlFingerprintListener extends JdbcEventListener {
+
+    private final SqlFingerprintRegistry registry;
+    private final ThreadLocal<RowCount> rowCount = ThreadLocal.withInitial(RowCount::new);
+
+    // execute, executeQuery, executeUpdate, executeBatch 모두 여기로 모인다
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        registry.recordExecution(statementInformation.getSql(), timeElapsedNanos, e != null);
+    }
+
+    @Override
+    public void onAfterExecuteUpdate(PreparedStatementInformation statementInformation, long timeElapsedNanos,
+                                     int rowCount, SQLException e) {
+        super.onAfterExecuteUpdate(statementInformation, timeElapsedNanos, rowCount, e);
+        registry.addRows(statementInformation.getSql(), rowCount);
+    }
+
+    @Override
+    public void onAfterExecuteUpdate(StatementInformation statementInformation, long timeElapsedNanos,
+                                     String sql, int rowCount, SQLException e) {
+        super.onAfterExecuteUpdate(statementInformation, timeElapsedNanos, sql, rowCount, e);
+        registry.addRows(sql, rowCount);
+    }
+
+    // 조회한 행 수는 ResultSet.next()가 true를 반환할 때마다 스레드 안에서만 세고,
+    // ResultSet을 닫거나 같은 스레드가 다른 ResultSet을 읽기 시작할 때 한 번에 기록한다
+    @Override
+    public void onAfterResultSetNext(ResultSetInformation resultSetInformation, long timeElapsedNanos,
+                                     boolean hasNext, SQLException e) {
+        if (hasNext) {
+            RowCount current = rowCount.get();
+            if (current.resultSet != resultSetInformation) {
+                flush(current);
+                current.resultSet = resultSetInformation;
+            }
+            current.rows++;
+        }
+    }
+
+    @Override
+    public void onAfterResultSetClose(ResultSetInformation resultSetInformation, SQLException e) {
+        RowCount current = rowCount.get();
+        if (current.resultSet == resultSetInformation) {
+            flush(current);
+        }
+    }
+
+    private void flush(RowCount current) {
+        if (current.resultSet != null && current.rows > 0) {
+            registry.addRows(current.resultSet.getStatementInformation().getSql(), current.rows);
+        }
+        current.resultSet = null;
+        current.rows = 0;
+    }
+
+    private static class RowCount {
+        private ResultSetInformation resultSet;
+        private long rows;
+    }
+}
@@ -0,0 +1,18 @@
+package study.datajpa.sql;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "datajpa.sql-fingerprint")
+public class SqlFingerprintProperties {
+    private boolean enabled = true;
+    // 통계를 따로 모으는 fingerprint 최대 수, 넘으면 (other) 하나로 합친다
+    private int maxFingerprints = 1000;
+    // SQL 원문 -> fingerprint 정규화 결과 캐시 크기 (넘으면 대략적인 LRU로 정리)
+    private int maxCachedStatements = 10_000;
+    // 정규화 캐시에 담는 SQL 원문의 전체 글자 수 상한, 패딩된 긴 in 절이 많아도 메모리 사용량이 고정된다
+    private long maxCachedStatementChars = 4_000_000;
+}
@@ -0,0 +1,162 @@
+package study.datajpa.sql;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * fingerprint별 실행 횟수, 지연시간 히스토그램, 행 수를 메모리에 모은다.
+ * fingerprint 수와 정규화 캐시의 건수, 글자 수에 상한이 있어서 메모리 사용량이 고정된다.
+ * 같은 SQL 원문은 정규화 결과를 캐시해서 실행마다 잠금 없는 해시 조회 한 번으로 끝난다.
+ * <p>
+ * 정규화 캐시가 상한을 넘으면 CLOCK 방식으로 대략적인 LRU를 흉내 낸다. 조회할 때 참조 표시만 남기고,
+ * 정리할 때 표시가 없는 원문부터 버린다. 새 원문은 표시 없이 들어가므로 리터럴 SQL처럼 한 번 쓰고 마는 원문이
+ * 자주 쓰는 원문보다 먼저 빠진다.
+ */
+@Component
+public class SqlFingerprintRegistry {
+
+    public static final String OTHER = "(other)";
+
+    private final SqlFingerprintProperties properties;
+    private final Map<String, SqlFingerprintStats> stats = new ConcurrentHashMap<>();
+    private final Map<String, CachedStatement> statsBySql = new ConcurrentHashMap<>();
+    private final AtomicLong cachedChars = new AtomicLong();
+    // 정리는 한 스레드만 하고 나머지는 기다리지 않고 지나간다
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    public SqlFingerprintRegistry(SqlFingerprintProperties properties) {
+        this.properties = properties;
+    }
+
+    public void recordExecution(String sql, long elapsedNanos, boolean failed) {
+        if (properties.isEnabled() && sql != null) {
+            statsFor(sql).recordExecution(elapsedNanos, failed);
+        }
+    }
+
+    public void addRows(String sql, long rowCount) {
+        if (properties.isEnabled() && sql != null && rowCount > 0) {
+            statsFor(sql).addRows(rowCount);
+        }
+    }
+
+    public List<SqlFingerprintReport> top(int limit, SortBy sortBy) {
+        return stats.entrySet().stream()
+                .map(entry -> entry.getValue().toReport(entry.getKey()))
+                .sorted(sortBy.comparator.reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    public void reset() {
+        statsBySql.clear();
+        cachedChars.set(0);
+        synchronized (stats) {
+            stats.clear();
+        }
+    }
+
+    int cachedStatementCount() {
+        return statsBySql.size();
+    }
+
+    boolean isCached(String sql) {
+        return statsBySql.containsKey(sql);
+    }
+
+    private SqlFingerprintStats statsFor(String sql) {
+        CachedStatement cached = statsBySql.get(sql);
+        if (cached != null) {
+            cached.referenced = true;
+            return cached.stats;
+        }
+
+        String fingerprint = SqlFingerprint.of(sql);
+        SqlFingerprintStats fingerprintStats = stats.get(fingerprint);
+        if (fingerprintStats == null) {
+            fingerprintStats = register(fingerprint);
+        }
+        if (sql.length() <= properties.getMaxCachedStatementChars()) {
+            cache(sql, fingerprintStats);
+        }
+        return fingerprintStats;
+    }
+
+    // 새 fingerprint는 드물게 생기므로 잠그고 등록해서 동시에 들어와도 상한을 넘지 않게 한다
+    private SqlFingerprintStats register(String fingerprint) {
+        synchronized (stats) {
+            SqlFingerprintStats existing = stats.get(fingerprint);
+            if (existing != null) {
+                return existing;
+            }
+            String key = stats.size() < properties.getMaxFingerprints() ? fingerprint : OTHER;
+            return stats.computeIfAbsent(key, k -> new SqlFingerprintStats());
+        }
+    }
+
+    private void cache(String sql, SqlFingerprintStats fingerprintStats) {
+        if (statsBySql.putIfAbsent(sql, new CachedStatement(fingerprintStats)) == null) {
+            cachedChars.addAndGet(sql.length());
+        }
+        if (overCapacity() && evicting.compareAndSet(false, true)) {
+            try {
+                evict();
+            } finally {
+                evicting.set(false);
+            }
+        }
+    }
+
+    // 참조 표시가 있으면 지우고 한 번 더 기회를 주고, 없으면 버린다. 한 바퀴 돌아도 넘치면 다시 돈다
+    private void evict() {
+        while (overCapacity()) {
+            Iterator<Map.Entry<String, CachedStatement>> iterator = statsBySql.entrySet().iterator();
+            while (iterator.hasNext() && overCapacity()) {
+                Map.Entry<String, CachedStatement> entry = iterator.next();
+                if (entry.getValue().referenced) {
+                    entry.getValue().referenced = false;
+                } else {
+                    iterator.remove();
+                    cachedChars.addAndGet(-entry.getKey().length());
+                }
+            }
+        }
+    }
+
+    private boolean overCapacity() {
+        return statsBySql.size() > properties.getMaxCachedStatements()
+                || cachedChars.get() > properties.getMaxCachedStatementChars();
+    }
+
+    private static class CachedStatement {
+        private final SqlFingerprintStats stats;
+        // 여러 스레드가 잠금 없이 쓰는 표시라 가끔 놓쳐도 정리 순서만 조금 달라진다
+        private boolean referenced;
+
+        CachedStatement(SqlFingerprintStats stats) {
+            this.stats = stats;
+        }
+    }
+
+    public enum SortBy {
+        TOTAL(Comparator.comparingDouble(SqlFingerprintReport::getTotalMillis)),
+        MEAN(Comparator.comparingDouble(SqlFingerprintReport::getMeanMillis)),
+        MAX(Comparator.comparingDouble(SqlFingerprintReport::getMaxMillis)),
+        P99(Comparator.comparingDouble(SqlFingerprintReport::getP99Millis)),
+        COUNT(Comparator.comparingLong(SqlFingerprintReport::getCount)),
+        ROWS(Comparator.comparingLong(SqlFingerprintReport::getRows));
+
+        private final Comparator<SqlFingerprintReport> comparator;
+
+        SortBy(Comparator<SqlFingerprintReport> comparator) {
+            this.comparator = comparator;
+        }
+    }
+}
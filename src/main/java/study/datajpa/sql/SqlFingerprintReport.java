@@ -0,0 +1,34 @@
+package study.datajpa.sql;
+
+import lombok.Getter;
+
+@Getter
+public class SqlFingerprintReport {
+    private final String fingerprint;
+    private final long count;
+    // select는 읽은 행 수, insert/update/delete는 변경된 행 수
+    private final long rows;
+    private final long errors;
+    private final double totalMillis;
+    private final double meanMillis;
+    private final double maxMillis;
+    // 히스토그램 구간 상한값 (근사치)
+    private final double p50Millis;
+    private final double p95Millis;
+    private final double p99Millis;
+
+    public SqlFingerprintReport(String fingerprint, long count, long rows, long errors,
+                                double totalMillis, double meanMillis, double maxMillis,
+                                double p50Millis, double p95Millis, double p99Millis) {
+        this.fingerprint = fingerprint;
+        this.count = count;
+        this.rows = rows;
+        this.errors = errors;
+        this.totalMillis = totalMillis;
+        this.meanMillis = meanMillis;
+        this.maxMillis = maxMillis;
+        this.p50Millis = p50Millis;
+        this.p95Millis = p95Millis;
+        this.p99Millis = p99Millis;
+    }
+}
@@ -0,0 +1,73 @@
+package study.datajpa.sql;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * fingerprint 하나의 누적 통계.
+ * 지연시간은 마이크로초 기준 2의 거듭제곱 구간 히스토그램으로 모아서 메모리가 fingerprint당 고정 크기다.
+ */
+class SqlFingerprintStats {
+
+    // 2^0 ~ 2^39 마이크로초 (약 6일)
+    private static final int BUCKETS = 40;
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+    void recordExecution(long elapsedNanos, boolean failed) {
+        count.increment();
+        totalNanos.add(elapsedNanos);
+        maxNanos.accumulateAndGet(elapsedNanos, Math::max);
+        histogram.incrementAndGet(bucket(elapsedNanos));
+        if (failed) {
+            errors.increment();
+        }
+    }
+
+    void addRows(long rowCount) {
+        rows.add(rowCount);
+    }
+
+    SqlFingerprintReport toReport(String fingerprint) {
+        long executions = count.sum();
+        long total = totalNanos.sum();
+        return new SqlFingerprintReport(fingerprint, executions, rows.sum(), errors.sum(),
+                total / 1_000_000.0,
+                executions == 0 ? 0 : total / 1_000_000.0 / executions,
+                maxNanos.get() / 1_000_000.0,
+                percentileMillis(0.5), percentileMillis(0.95), percentileMillis(0.99));
+    }
+
+    private static int bucket(long elapsedNanos) {
+        long micros = Math.max(1, elapsedNanos / 1_000);
+        return Math.min(BUCKETS - 1, 63 - Long.numberOfLeadingZeros(micros));
+    }
+
+    // 구간 상한값을 반환하므로 실제 값보다 최대 2배까지 크게 나올 수 있다
+    private double percentileMillis(double percentile) {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = histogram.get(i);
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(percentile * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return (1L << (i + 1)) / 1_000.0;
+            }
+        }
+        return (1L << BUCKETS) / 1_000.0;
+    }
+}
@@ -0,0 +1,8 @@
+package study.datajpa.sql;
+
+public class StatementBudgetExceededException extends RuntimeException {
+
+    public StatementBudgetExceededException(int budget, String sql) {
+        super("SQL 실행 횟수 제한(" + budget + ")을 초과했습니다: " + sql);
+    }
+}
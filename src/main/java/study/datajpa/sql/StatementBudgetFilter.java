@@ -0,0 +1,45 @@
+package study.datajpa.sql;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "datajpa.statement-budget.enabled", havingValue = "true", matchIfMissing = true)
+public class StatementBudgetFilter extends OncePerRequestFilter {
+
+    private final StatementBudgetProperties properties;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try (StatementScope scope = StatementRecorder.start(properties.getMaxStatements(), properties.isFailOnExceed())) {
+            filterChain.doFilter(request, response);
+            report(request, scope);
+        }
+    }
+
+    private void report(HttpServletRequest request, StatementScope scope) {
+        String uri = request.getMethod() + " " + request.getRequestURI();
+        log.debug("{} -> SQL {}건, {} ms", uri, scope.getCount(), scope.getTotalNanos() / 1_000_000);
+
+        List<String> suspects = scope.getNPlusOneSuspects(properties.getRepeatThreshold());
+        for (String sql : suspects) {
+            log.warn("{} -> N+1 의심: {}회 실행 [{}]", uri, scope.getCountsBySql().get(sql), sql);
+        }
+        if (scope.isOverBudget()) {
+            log.warn("{} -> SQL 실행 횟수 제한 초과: {}건 (제한 {}건)", uri, scope.getCount(), scope.getBudget());
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package study.datajpa.sql;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "datajpa.statement-budget")
+public class StatementBudgetProperties {
+    private boolean enabled = true;
+    // 요청 하나에서 허용하는 SQL 실행 횟수
+    private int maxStatements = 30;
+    // 같은 모양의 쿼리가 이 횟수 이상 반복되면 N+1 의심으로 로그를 남긴다
+    private int repeatThreshold = 3;
+    // true면 제한을 넘는 SQL 실행 시점에 StatementBudgetExceededException 발생, false면 로그만 남긴다
+    private boolean failOnExceed = false;
+}
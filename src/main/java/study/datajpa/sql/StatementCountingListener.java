@@ -0,0 +1,22 @@
+package study.datajpa.sql;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.JdbcEventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+
+// p6spy-spring-boot-starter가 JdbcEventListener 빈을 자동으로 등록한다
+@Component
+public class StatementCountingListener extends JdbcEventListener {
+
+    @Override
+    public void onBeforeAnyExecute(StatementInformation statementInformation) {
+        StatementRecorder.beforeExecute(statementInformation.getSql());
+    }
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        StatementRecorder.afterExecute(statementInformation.getSql(), timeElapsedNanos);
+    }
+}
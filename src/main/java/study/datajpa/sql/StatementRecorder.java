@@ -0,0 +1,45 @@
+package study.datajpa.sql;
+
+public class StatementRecorder {
+
+    private static final ThreadLocal<StatementScope> CURRENT = new ThreadLocal<>();
+
+    private StatementRecorder() {
+    }
+
+    // 기록만 하고 제한은 두지 않는다 (테스트에서 실행된 SQL 수 검증용)
+    public static StatementScope start() {
+        return start(Integer.MAX_VALUE, false);
+    }
+
+    public static StatementScope start(int budget, boolean failOnExceed) {
+        StatementScope scope = new StatementScope(CURRENT.get(), budget, failOnExceed);
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    static void end(StatementScope scope) {
+        if (CURRENT.get() != scope) {
+            return;
+        }
+        if (scope.getParent() == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(scope.getParent());
+        }
+    }
+
+    static void beforeExecute(String sql) {
+        StatementScope scope = CURRENT.get();
+        if (scope != null) {
+            scope.beforeExecute(sql);
+        }
+    }
+
+    static void afterExecute(String sql, long elapsedNanos) {
+        StatementScope scope = CURRENT.get();
+        if (scope != null) {
+            scope.afterExecute(sql, elapsedNanos);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package study.datajpa.sql;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 한 요청(또는 테스트 구간) 동안 실행된 SQL 문 수와 시간을 기록한다.
+ * StatementRecorder.start()로 열고, try-with-resources로 닫는다.
+ */
+public class StatementScope implements AutoCloseable {
+
+    private final StatementScope parent;
+    private final int budget;
+    private final boolean failOnExceed;
+    private final Map<String, Integer> countsBySql = new LinkedHashMap<>();
+    private int count;
+    private long totalNanos;
+
+    StatementScope(StatementScope parent, int budget, boolean failOnExceed) {
+        this.parent = parent;
+        this.budget = budget;
+        this.failOnExceed = failOnExceed;
+    }
+
+    void beforeExecute(String sql) {
+        if (failOnExceed && count >= budget) {
+            throw new StatementBudgetExceededException(budget, sql);
+        }
+        if (parent != null) {
+            parent.beforeExecute(sql);
+        }
+    }
+
+    void afterExecute(String sql, long elapsedNanos) {
+        count++;
+        totalNanos += elapsedNanos;
+        countsBySql.merge(sql, 1, Integer::sum);
+        if (parent != null) {
+            parent.afterExecute(sql, elapsedNanos);
+        }
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public int getBudget() {
+        return budget;
+    }
+
+    public boolean isOverBudget() {
+        return count > budget;
+    }
+
+    public Map<String, Integer> getCountsBySql() {
+        return Map.copyOf(countsBySql);
+    }
+
+    // 파라미터만 다른 같은 모양의 쿼리가 threshold 번 이상 실행되면 N+1 의심
+    public List<String> getNPlusOneSuspects(int threshold) {
+        return countsBySql.entrySet().stream()
+                .filter(entry -> entry.getValue() >= threshold)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    StatementScope getParent() {
+        return parent;
+    }
+
+    @Override
+    public void close() {
+        StatementRecorder.end(this);
+    }
+}
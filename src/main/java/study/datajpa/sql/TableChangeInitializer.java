@@ -0,0 +1,50 @@
+package study.datajpa.sql;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.TableChange;
+import study.datajpa.repository.TableChangeRepository;
+
+import java.util.Locale;
+
+/**
+ * TableWriteCounter가 갱신할 table_change 행을 만든다.
+ * 카운터는 update만 하므로 행이 없으면 그 테이블의 쓰기는 세지 않는다.
+ * 읽기 전용 트랜잭션은 복제본으로 갈 수 있으므로 읽기/쓰기 트랜잭션으로 primary에서 확인하고 만든다.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class TableChangeInitializer implements ApplicationRunner {
+
+    private final TableChangeRepository tableChangeRepository;
+    private final TableChangeProperties properties;
+    private final PlatformTransactionManager transactionManager;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        for (String name : properties.getTables()) {
+            String table = name.toLowerCase(Locale.ROOT);
+            try {
+                transaction.executeWithoutResult(status -> {
+                    if (!tableChangeRepository.existsById(table)) {
+                        tableChangeRepository.save(new TableChange(table));
+                    }
+                });
+            } catch (DataIntegrityViolationException e) {
+                // 다른 인스턴스가 먼저 만들었다
+                log.debug("table_change 행이 이미 있음: {}", table);
+            }
+        }
+    }
+}
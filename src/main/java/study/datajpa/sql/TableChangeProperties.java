@@ -0,0 +1,15 @@
+package study.datajpa.sql;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "datajpa.table-change")
+public class TableChangeProperties {
+    // 커밋된 쓰기 횟수를 table_change에 기록할 테이블 (목록 ETag에 쓰는 테이블만)
+    private List<String> tables = List.of("member", "team");
+}
@@ -0,0 +1,132 @@
+package study.datajpa.sql;
+
+import com.p6spy.engine.common.ConnectionInformation;
+import com.p6spy.engine.common.PreparedStatementInformation;
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.JdbcEventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * 테이블별 쓰기(insert, update, delete) 횟수를 table_change 테이블({@link study.datajpa.entity.TableChange})에 기록한다.
+ * 엔티티 변경, @Modifying 쿼리, BulkUpdateEngine 등 경로와 상관없이 실행된 JDBC 쓰기 문장으로 세므로
+ * 버전을 올리지 않는 벌크 연산도 변경 감지 값(ETag)에 반영할 수 있다.
+ * <p>
+ * 트랜잭션 안의 쓰기는 커밋 직전에 같은 연결에서 한 번에 올리므로 데이터 변경과 함께 커밋되고 롤백되면 같이 사라진다.
+ * 값이 DB에 있으므로 여러 인스턴스가 같은 데이터에 같은 ETag를 만들고, 재시작해도 이전 값과 겹치지 않는다.
+ * 카운터 행은 커밋 직전에만 잠그므로 락 보유 시간은 커밋 한 번이지만, 같은 테이블에 쓰는 트랜잭션의 커밋은 그 행에서 차례로 처리된다.
+ * <p>
+ * 이 애플리케이션의 JDBC 연결을 거친 쓰기만 보인다. 다른 도구로 직접 바꾼 데이터는 감지하지 못한다.
+ * 대상 테이블의 행은 {@link TableChangeInitializer}가 시작할 때 만든다.
+ */
+@Component
+public class TableWriteCounter extends JdbcEventListener {
+
+    // 앞쪽 주석을 건너뛰고 쓰기 대상 테이블 이름을 찾는다
+    private static final Pattern WRITE_TARGET = Pattern.compile(
+            "^\\s*(?:/\\*.*?\\*/\\s*)*(?:insert\\s+into|update|delete\\s+from)\\s+(\\w+)",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    private final Set<String> tables;
+    // 커밋을 기다리는 연결별 쓰기 대상 테이블
+    private final Map<ConnectionInformation, Set<String>> pending = new ConcurrentHashMap<>();
+
+    public TableWriteCounter(TableChangeProperties properties) {
+        this.tables = properties.getTables().stream()
+                .map(table -> table.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @Override
+    public void onAfterExecuteUpdate(PreparedStatementInformation statementInformation, long timeElapsedNanos,
+                                     int rowCount, SQLException e) {
+        super.onAfterExecuteUpdate(statementInformation, timeElapsedNanos, rowCount, e);
+        written(statementInformation, statementInformation.getSql(), e);
+    }
+
+    @Override
+    public void onAfterExecuteUpdate(StatementInformation statementInformation, long timeElapsedNanos,
+                                     String sql, int rowCount, SQLException e) {
+        super.onAfterExecuteUpdate(statementInformation, timeElapsedNanos, sql, rowCount, e);
+        written(statementInformation, sql, e);
+    }
+
+    @Override
+    public void onAfterExecuteBatch(StatementInformation statementInformation, long timeElapsedNanos,
+                                    int[] updateCounts, SQLException e) {
+        written(statementInformation, statementInformation.getSql(), e);
+    }
+
+    // 카운터 갱신이 실패하면 커밋도 실패시킨다. 데이터만 커밋되면 변경된 목록에 304를 응답할 수 있기 때문이다
+    @Override
+    public void onBeforeCommit(ConnectionInformation connectionInformation) {
+        Set<String> written = pending.remove(connectionInformation);
+        if (written == null) {
+            return;
+        }
+        try {
+            increment(connectionInformation.getConnection(), written);
+        } catch (SQLException e) {
+            throw new IllegalStateException("table_change 갱신 실패: " + written, e);
+        }
+    }
+
+    @Override
+    public void onAfterRollback(ConnectionInformation connectionInformation, long timeElapsedNanos, SQLException e) {
+        pending.remove(connectionInformation);
+    }
+
+    @Override
+    public void onAfterConnectionClose(ConnectionInformation connectionInformation, SQLException e) {
+        pending.remove(connectionInformation);
+    }
+
+    private void written(StatementInformation statementInformation, String sql, SQLException e) {
+        if (e != null || sql == null) {
+            return;
+        }
+        Matcher matcher = WRITE_TARGET.matcher(sql);
+        if (!matcher.find()) {
+            return;
+        }
+        String table = matcher.group(1).toLowerCase(Locale.ROOT);
+        if (!tables.contains(table)) {
+            return;
+        }
+        ConnectionInformation connectionInformation = statementInformation.getConnectionInformation();
+        Connection connection = connectionInformation.getConnection();
+        try {
+            if (connection.getAutoCommit()) {
+                // 쓰기가 이미 커밋되었으므로 바로 올린다
+                increment(connection, Set.of(table));
+            } else {
+                pending.computeIfAbsent(connectionInformation, c -> ConcurrentHashMap.newKeySet()).add(table);
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("table_change 갱신 실패: " + table, ex);
+        }
+    }
+
+    // p6spy로 감싸지 않은 원래 연결로 실행하므로 이 리스너에 다시 들어오지 않는다
+    // 테이블 이름 순으로 한 문장에서 잠가서 두 테이블에 쓰는 트랜잭션끼리 교착되지 않게 한다
+    private static void increment(Connection connection, Set<String> written) throws SQLException {
+        List<String> names = new ArrayList<>(written);
+        Collections.sort(names);
+        String sql = "update table_change set change_count = change_count + 1 where table_name in ("
+                + String.join(", ", Collections.nCopies(names.size(), "?")) + ")";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < names.size(); i++) {
+                statement.setString(i + 1, names.get(i));
+            }
+            statement.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package study.datajpa.audit;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "datajpa.audit.mode=transaction")
+@Transactional
+class TransactionScopedAuditingTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    TransactionScopedAuditing auditing;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    EntityManager em;
+
+    @Test
+    void shareAuditorAndTimestampInTransaction() {
+        // when
+        List<Member> members = memberRepository.saveAll(List.of(
+                new Member("member1"), new Member("member2"), new Member("member3")));
+        em.flush();
+
+        // then
+        Member first = members.get(0);
+        assertThat(first.getCreatedBy()).isNotNull();
+        assertThat(members).allSatisfy(member -> {
+            assertThat(member.getCreatedBy()).isEqualTo(first.getCreatedBy());
+            assertThat(member.getLastModifiedBy()).isEqualTo(first.getCreatedBy());
+            assertThat(member.getCreatedDate()).isEqualTo(first.getCreatedDate());
+            assertThat(member.getLastModifiedDate()).isEqualTo(first.getCreatedDate());
+        });
+        assertThat(auditing.now()).isEqualTo(first.getCreatedDate());
+    }
+
+    @Test
+    void newTransactionGetsNewStamp() {
+        String outer = auditing.getCurrentAuditor().orElseThrow();
+
+        TransactionTemplate requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        String inner = requiresNew.execute(status -> auditing.getCurrentAuditor().orElseThrow());
+
+        assertThat(inner).isNotEqualTo(outer);
+        // 안쪽 트랜잭션이 끝나면 바깥 트랜잭션 값으로 돌아온다
+        assertThat(auditing.getCurrentAuditor()).contains(outer);
+    }
+
+    @Test
+    void fastUuid() {
+        UUID uuid = FastUuid.randomUuid();
+
+        assertThat(uuid.version()).isEqualTo(4);
+        assertThat(uuid.variant()).isEqualTo(2);
+        assertThat(UUID.fromString(uuid.toString())).isEqualTo(uuid);
+    }
+}
@@ -0,0 +1,109 @@
+package study.datajpa.bulk;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+// 구간마다 별도 트랜잭션에서 커밋되므로 테스트 트랜잭션을 쓰지 않고 직접 정리한다
+// 공유 DB의 다른 행을 건드리지 않도록 이 테스트가 저장한 이름(prefix)만 업데이트하고 지운다
+@SpringBootTest
+class BulkUpdateEngineTest {
+
+    private static final String JOB_NAME = "bulk-update-engine-test";
+
+    @Autowired
+    BulkUpdateEngine bulkUpdateEngine;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    private final String prefix = "bulk-" + UUID.randomUUID() + "-";
+    private final List<Long> memberIds = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        bulkUpdateEngine.reset(JOB_NAME);
+        memberRepository.deleteAllByIdInBatch(memberIds);
+    }
+
+    @Test
+    void executeInChunks() {
+        // given
+        saveMembers(100);
+        BulkUpdateJob job = new BulkUpdateJob(JOB_NAME, Member.class,
+                "update Member m set m.age = m.age + 1, m.version = m.version + 1 " +
+                        "where m.age >= :age and m.username like :prefix and m.id between :fromId and :toId")
+                .parameter("age", 50)
+                .parameter("prefix", prefix + "%")
+                .chunkSize(10);
+
+        // when
+        BulkUpdateProgress progress = bulkUpdateEngine.execute(job);
+
+        // then
+        assertThat(progress.getRowsAffected()).isEqualTo(50);
+        assertThat(progress.getFailedChunks()).isZero();
+        assertThat(progress.getCompletedChunks()).isEqualTo(progress.getTotalChunks());
+        assertThat(progress.isFinished()).isTrue();
+        assertAgesPlusOne(memberRepository.findAllById(memberIds), 50);
+
+        // 같은 이름으로 다시 실행하면 완료된 구간은 모두 건너뛴다
+        BulkUpdateProgress again = bulkUpdateEngine.execute(job);
+        assertThat(again.getCompletedChunks()).isZero();
+        assertThat(again.getSkippedChunks()).isEqualTo(progress.getTotalChunks());
+        assertAgesPlusOne(memberRepository.findAllById(memberIds), 50);
+    }
+
+    @Test
+    void resumeAfterFailure() {
+        // given
+        saveMembers(100);
+        Member poison = memberRepository.save(new Member(prefix + "poison", 1000));
+        // age가 1000인 행에서만 0으로 나누기 오류, 나머지는 age + 1
+        BulkUpdateJob job = new BulkUpdateJob(JOB_NAME, Member.class,
+                "update Member m set m.age = (m.age + 1) * (m.age - 1000) / (m.age - 1000), m.version = m.version + 1 " +
+                        "where m.age >= :age and m.username like :prefix and m.id between :fromId and :toId")
+                .parameter("age", 50)
+                .parameter("prefix", prefix + "%")
+                .chunkSize(10);
+
+        // when
+        BulkUpdateException failed = catchThrowableOfType(() -> bulkUpdateEngine.execute(job), BulkUpdateException.class);
+        memberRepository.deleteById(poison.getId());
+        BulkUpdateProgress resumed = bulkUpdateEngine.execute(job);
+
+        // then
+        assertThat(failed.getProgress().getFailedChunks()).isPositive();
+        assertThat(resumed.getSkippedChunks()).isEqualTo(failed.getProgress().getCompletedChunks());
+        assertThat(resumed.getFailedChunks()).isZero();
+        // 실패한 구간은 롤백되었으므로 모든 행이 정확히 한 번씩만 반영된다
+        assertAgesPlusOne(memberRepository.findAllById(memberIds), 50);
+    }
+
+    private void saveMembers(int count) {
+        List<Member> members = IntStream.range(0, count)
+                .mapToObj(i -> new Member(prefix + i, i))
+                .toList();
+        memberRepository.saveAllBatched(members, 100);
+        members.forEach(member -> memberIds.add(member.getId()));
+    }
+
+    private void assertAgesPlusOne(List<Member> members, int fromAge) {
+        assertThat(members).hasSize(memberIds.size());
+        assertThat(members).allSatisfy(member -> {
+            int original = Integer.parseInt(member.getUsername().substring(prefix.length()));
+            assertThat(member.getAge()).isEqualTo(original >= fromAge ? original + 1 : original);
+        });
+    }
+}
@@ -0,0 +1,98 @@
+package study.datajpa.bulk;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+// 작업자 트랜잭션이 각자 커밋하므로 테스트 트랜잭션을 쓰지 않고 직접 정리한다
+// 공유 DB의 다른 행을 선점하지 않도록 작업 대상은 음수 age로 만든다
+@SpringBootTest
+class SkipLockedWorkerPoolTest {
+
+    private static final int CLAIM_AGE = -1000;
+
+    @Autowired
+    SkipLockedWorkerPool workerPool;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    private List<Member> members = List.of();
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAllByIdInBatch(members.stream().map(Member::getId).toList());
+    }
+
+    @Test
+    void drainConcurrently() {
+        // given: age가 CLAIM_AGE 미만인 회원이 작업 대상
+        members = IntStream.range(0, 200)
+                .mapToObj(i -> new Member("member" + i, CLAIM_AGE - 1 - i % 10))
+                .toList();
+        memberRepository.saveAllBatched(members, 100);
+        Queue<Long> processedIds = new ConcurrentLinkedQueue<>();
+
+        // when: 처리한 회원은 age를 0으로 바꿔서 작업 대상에서 빠진다
+        WorkerPoolResult result = workerPool.drain(
+                size -> memberRepository.claimByAgeLessThan(CLAIM_AGE, PageRequest.of(0, size)),
+                member -> {
+                    processedIds.add(member.getId());
+                    member.setAge(0);
+                });
+
+        // then: 같은 회원을 두 번 처리하지 않는다
+        // H2 2.1은 SKIP LOCKED 대신 잠긴 행을 기다리는 FOR UPDATE로 실행되므로,
+        // 기다린 뒤 조건을 다시 확인하는지에 따라 달라지는 처리 건수는 상한만 확인한다
+        assertThat(processedIds).doesNotHaveDuplicates();
+        assertThat(processedIds).hasSizeLessThanOrEqualTo(members.size());
+        assertThat(result.getProcessed()).isEqualTo(processedIds.size());
+        // 선점한 행은 커밋되면서 조건에서 빠지므로 잠긴 행을 기다리는 FOR UPDATE에서도 모든 대상이 처리된다
+        assertThat(memberRepository.findAllById(members.stream().map(Member::getId).toList()))
+                .extracting(Member::getAge)
+                .containsOnly(0);
+    }
+
+    @Test
+    @DisplayName("한 작업자가 실패하면 다른 작업자도 진행 중인 트랜잭션까지만 처리하고 멈춘다")
+    void stopAllWorkersOnFailure() {
+        // given: 작업 대상이 끝나지 않는 선점기, 다섯 번째 작업에서 실패
+        WorkerPoolProperties properties = new WorkerPoolProperties();
+        properties.setWorkers(2);
+        properties.setBatchSize(1);
+        SkipLockedWorkerPool pool = new SkipLockedWorkerPool(transactionManager, properties);
+        AtomicInteger sequence = new AtomicInteger();
+        IllegalStateException boom = new IllegalStateException("boom");
+
+        // when & then: 실패를 알리지 않으면 다른 작업자가 끝없이 선점하므로 시간 안에 끝나지 않는다
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () ->
+                assertThatThrownBy(() -> pool.drain(
+                        size -> List.of(sequence.incrementAndGet()),
+                        item -> {
+                            if (item == 5) {
+                                throw boom;
+                            }
+                        }))
+                        .isSameAs(boom));
+    }
+}
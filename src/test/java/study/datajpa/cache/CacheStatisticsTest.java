@@ -0,0 +1,153 @@
+package study.datajpa.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.MemberSummary;
+import study.datajpa.repository.TeamRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("cache")
+class CacheStatisticsTest {
+
+    @Autowired
+    TeamRepository teamRepository;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    CacheStatistics cacheStatistics;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Test
+    void teamSecondLevelCache() {
+        // given
+        // READ_WRITE 전략은 insert 커밋 시점에 2차 캐시에 적재
+        Team team = teamRepository.save(new Team("teamA"));
+
+        try {
+            CacheRegionStats before = cacheStatistics.region("team");
+
+            // when
+            // 새 영속성 컨텍스트에서 조회해도 DB 대신 2차 캐시에서 찾는다
+            teamRepository.findById(team.getId());
+            teamRepository.findById(team.getId());
+
+            // then
+            CacheRegionStats after = cacheStatistics.region("team");
+            assertThat(after.getHitCount() - before.getHitCount()).isEqualTo(2);
+            assertThat(after.getMissCount()).isEqualTo(before.getMissCount());
+        } finally {
+            teamRepository.deleteById(team.getId());
+        }
+    }
+
+    @Test
+    void usernameQueryCache() {
+        // given
+        Member member = memberRepository.save(new Member("cachedMember", 10));
+
+        try {
+            memberRepository.findMembers("cachedMember"); // 캐시 미스 -> 결과 적재
+            CacheRegionStats before = cacheStatistics.queryRegion("member.username");
+
+            // when
+            Member cached = memberRepository.findMembers("cachedMember");
+
+            // then
+            CacheRegionStats after = cacheStatistics.queryRegion("member.username");
+            assertThat(after.getHitCount() - before.getHitCount()).isEqualTo(1);
+            assertThat(cached.getAge()).isEqualTo(10);
+
+            // when
+            // 벌크 연산은 엔티티 리스너를 거치지 않지만 Hibernate가 member 테이블의 쿼리 캐시를 무효화한다
+            new TransactionTemplate(transactionManager).executeWithoutResult(
+                    status -> memberRepository.bulkAgePlus(10));
+            Member updated = memberRepository.findMembers("cachedMember");
+
+            // then
+            assertThat(updated.getAge()).isEqualTo(11);
+            assertThat(cacheStatistics.queryRegion("member.username").getHitCount()).isEqualTo(after.getHitCount());
+        } finally {
+            memberRepository.deleteById(member.getId());
+        }
+    }
+
+    @Test
+    void summaryQueryCache() {
+        // given
+        Member member = memberRepository.save(new Member("summaryMember", 10));
+
+        try {
+            memberRepository.findSummaryById(member.getId()); // 캐시 미스 -> 결과 적재
+            CacheRegionStats before = cacheStatistics.queryRegion("member.summary");
+
+            // when
+            // 프로젝션 결과는 Member 2차 캐시 대신 쿼리 캐시에서 찾는다
+            memberRepository.findSummaryById(member.getId());
+
+            // then
+            CacheRegionStats after = cacheStatistics.queryRegion("member.summary");
+            assertThat(after.getHitCount() - before.getHitCount()).isEqualTo(1);
+
+            // when
+            new TransactionTemplate(transactionManager).executeWithoutResult(
+                    status -> memberRepository.findById(member.getId()).orElseThrow().setUsername("renamedMember"));
+
+            // then: member 테이블이 변경되었으므로 캐시를 쓰지 않고 새 값을 읽는다
+            assertThat(memberRepository.findSummaryById(member.getId()))
+                    .contains(new MemberSummary(member.getId(), "renamedMember"));
+            assertThat(cacheStatistics.queryRegion("member.summary").getHitCount()).isEqualTo(after.getHitCount());
+        } finally {
+            memberRepository.deleteById(member.getId());
+        }
+    }
+
+    @Test
+    void inverseCollectionCacheEvictedOnMemberChange() {
+        // given
+        Team teamA = teamRepository.save(new Team("teamA"));
+        Team teamB = teamRepository.save(new Team("teamB"));
+        Member moved = memberRepository.save(new Member("movedMember", 10, teamA));
+        Member deleted = memberRepository.save(new Member("deletedMember", 20, teamA));
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        try {
+            // team.members 캐시 적재
+            assertThat(memberNames(tx, teamA.getId())).containsExactlyInAnyOrder("movedMember", "deletedMember");
+
+            // when: team.getMembers()는 건드리지 않고 회원 쪽만 변경
+            tx.executeWithoutResult(status -> {
+                memberRepository.findById(moved.getId()).orElseThrow()
+                        .setTeam(teamRepository.findById(teamB.getId()).orElseThrow());
+                memberRepository.deleteById(deleted.getId());
+            });
+
+            // then: 캐시된 컬렉션에 이전 식별자가 남아 있지 않다
+            assertThat(memberNames(tx, teamA.getId())).isEmpty();
+            assertThat(memberNames(tx, teamB.getId())).containsExactly("movedMember");
+        } finally {
+            memberRepository.deleteAllByIdInBatch(List.of(moved.getId(), deleted.getId()));
+            teamRepository.deleteAllByIdInBatch(List.of(teamA.getId(), teamB.getId()));
+        }
+    }
+
+    private List<String> memberNames(TransactionTemplate tx, Long teamId) {
+        return tx.execute(status -> teamRepository.findById(teamId).orElseThrow().getMembers().stream()
+                .map(Member::getUsername)
+                .toList());
+    }
+}
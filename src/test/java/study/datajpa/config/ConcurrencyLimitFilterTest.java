@@ -0,0 +1,46 @@
+package study.datajpa.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimitFilterTest {
+
+    @Test
+    void releaseAfterSyncRequest() throws Exception {
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(1, Duration.ofMillis(10));
+
+        filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(),
+                (request, response) -> assertThat(filter.getAvailablePermits()).isZero());
+
+        assertThat(filter.getAvailablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    void holdPermitUntilAsyncCompletes() throws Exception {
+        // given
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(1, Duration.ofMillis(10));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAsyncSupported(true);
+
+        // when: 컨트롤러가 비동기 처리를 시작하고 반환
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+
+        // then: 비동기 작업이 끝날 때까지 허가를 쥐고 있으므로 다음 요청은 503
+        assertThat(filter.getAvailablePermits()).isZero();
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest(), rejected, (req, res) -> {
+        });
+        assertThat(rejected.getStatus()).isEqualTo(503);
+
+        // when: 비동기 작업 완료
+        request.getAsyncContext().complete();
+
+        // then
+        assertThat(filter.getAvailablePermits()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,167 @@
+package study.datajpa.controller;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.ServletWebRequest;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TableChangeRepository;
+import study.datajpa.repository.TeamRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 커밋된 쓰기만 ETag에 반영되므로 테스트 트랜잭션을 쓰지 않고 저장한 데이터만 직접 정리한다
+@SpringBootTest
+class MemberListValidatorTest {
+
+    @Autowired
+    MemberListValidator validator;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    TableChangeRepository tableChangeRepository;
+
+    @Autowired
+    TeamRepository teamRepository;
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Test
+    void notModifiedUntilDataChanges() {
+        // given
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Team team = teamRepository.save(new Team("teamA"));
+        Member member = memberRepository.save(new Member("member1", 10, team));
+
+        try {
+            Pageable pageable = PageRequest.of(0, 10);
+            String etag = etag(pageable, null);
+
+            // 같은 ETag로 다시 요청하면 304
+            assertThat(etag).isNotNull();
+            assertThat(etag(pageable, etag)).isNull();
+            // 페이지가 다르면 ETag도 다르다
+            assertThat(etag(PageRequest.of(1, 10), etag)).isNotEqualTo(etag);
+            // 쓰기 횟수는 DB에 있으므로 다른 인스턴스(검증기)도 같은 ETag를 만든다
+            assertThat(etag(new MemberListValidator(tableChangeRepository), pageable, etag)).isNull();
+
+            // 회원 수정
+            transaction.executeWithoutResult(status ->
+                    memberRepository.findById(member.getId()).orElseThrow().setAge(20));
+            String afterUpdate = etag(pageable, etag);
+            assertThat(afterUpdate).isNotNull().isNotEqualTo(etag);
+
+            // 팀 이름 변경도 목록 응답에 포함되므로 감지
+            transaction.executeWithoutResult(status ->
+                    teamRepository.findById(team.getId()).orElseThrow().setName("teamB"));
+            String afterRename = etag(pageable, afterUpdate);
+            assertThat(afterRename).isNotNull().isNotEqualTo(afterUpdate);
+
+            // 삭제도 감지
+            memberRepository.deleteById(member.getId());
+            assertThat(etag(pageable, afterRename)).isNotNull().isNotEqualTo(afterRename);
+        } finally {
+            memberRepository.deleteAllByIdInBatch(List.of(member.getId()));
+            teamRepository.deleteById(team.getId());
+        }
+    }
+
+    @Test
+    void uncommittedWritesDoNotChangeEtag() {
+        // given
+        Member member = memberRepository.save(new Member("uncommitted", 10));
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        try {
+            Pageable pageable = PageRequest.of(0, 10);
+            String etag = etag(pageable, null);
+
+            // when & then: 커밋 전에는 다른 요청에 이전 ETag가 유효하다
+            transaction.executeWithoutResult(status -> {
+                memberRepository.findById(member.getId()).orElseThrow().setAge(30);
+                memberRepository.flush();
+                assertThat(etagInNewTransaction(pageable, etag)).isNull();
+            });
+            assertThat(etag(pageable, etag)).isNotNull().isNotEqualTo(etag);
+        } finally {
+            memberRepository.deleteById(member.getId());
+        }
+    }
+
+    @Test
+    void bulkUpdateWithoutVersionBumpChangesEtag() {
+        // given
+        Member member = memberRepository.save(new Member("etagMember", 10));
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        try {
+            Pageable pageable = PageRequest.of(0, 10);
+            String etag = etag(pageable, null);
+            assertThat(etag(pageable, etag)).isNull();
+
+            // 롤백된 쓰기는 반영하지 않는다
+            transaction.executeWithoutResult(status -> {
+                bumpAgeWithoutVersion(member.getId());
+                status.setRollbackOnly();
+            });
+            assertThat(etag(pageable, etag)).isNull();
+
+            // when: 버전도 수정 시각도 바꾸지 않는 벌크 업데이트
+            transaction.executeWithoutResult(status -> bumpAgeWithoutVersion(member.getId()));
+
+            // then
+            assertThat(etag(pageable, etag)).isNotNull().isNotEqualTo(etag);
+        } finally {
+            memberRepository.deleteById(member.getId());
+        }
+    }
+
+    private void bumpAgeWithoutVersion(Long id) {
+        em.createQuery("update Member m set m.age = m.age + 1 where m.id = :id")
+                .setParameter("id", id)
+                .executeUpdate();
+    }
+
+    // 304면 null, 아니면 새 ETag
+    private String etag(Pageable pageable, String ifNoneMatch) {
+        return etag(validator, pageable, ifNoneMatch);
+    }
+
+    private String etagInNewTransaction(Pageable pageable, String ifNoneMatch) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return transaction.execute(status -> etag(pageable, ifNoneMatch));
+    }
+
+    private String etag(MemberListValidator validator, Pageable pageable, String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/members");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        boolean notModified = validator.checkNotModified(new ServletWebRequest(request, response), "members", pageable, true);
+
+        assertThat(response.getStatus()).isEqualTo(notModified ? 304 : 200);
+        return notModified ? null : response.getHeader(HttpHeaders.ETAG);
+    }
+}
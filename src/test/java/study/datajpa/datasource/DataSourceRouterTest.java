@@ -0,0 +1,117 @@
+package study.datajpa.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "datajpa.datasource.routing.enabled=true",
+        "datajpa.datasource.replica-lag-tolerance=1m",
+        "datajpa.datasource.primary.url=jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1",
+        "datajpa.datasource.primary.username=sa",
+        "datajpa.datasource.replica.url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+        "datajpa.datasource.replica.username=sa",
+        // 라우팅만 확인하므로 시작 시 색인 재구성은 하지 않는다
+        "datajpa.username-search.rebuild-on-startup=false"
+})
+class DataSourceRouterTest {
+
+    @Autowired
+    DataSource dataSource;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    // 쓰기 커밋 기록이 스레드/요청 단위라서 테스트끼리 섞이지 않도록 새 스레드에서 실행한다
+    @Test
+    void readOnlyTransactionUsesReplica() throws Exception {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+
+        assertThat(onNewThread(() -> readOnly.execute(status -> currentUrl()))).contains("mem:replica");
+        assertThat(onNewThread(() -> readWrite.execute(status -> currentUrl()))).contains("mem:primary");
+    }
+
+    @Test
+    @DisplayName("쓰기를 커밋한 요청(스레드)만 읽기도 primary로 보내고 다른 요청은 replica를 사용한다")
+    void readYourWritesIsScopedToWriter() throws Exception {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+
+        // 요청 밖: 같은 스레드
+        assertThat(onNewThread(() -> {
+            readWrite.execute(status -> currentUrl());
+            return readOnly.execute(status -> currentUrl());
+        })).contains("mem:primary");
+        assertThat(onNewThread(() -> readOnly.execute(status -> currentUrl()))).contains("mem:replica");
+
+        // 요청 안: 같은 스레드라도 다음 요청은 replica
+        List<String> urls = onNewThread(() -> {
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+            readWrite.execute(status -> currentUrl());
+            String sameRequest = readOnly.execute(status -> currentUrl());
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+            String nextRequest = readOnly.execute(status -> currentUrl());
+            RequestContextHolder.resetRequestAttributes();
+            return List.of(sameRequest, nextRequest);
+        });
+        assertThat(urls.get(0)).contains("mem:primary");
+        assertThat(urls.get(1)).contains("mem:replica");
+    }
+
+    @Test
+    void poolMetricsPerPool() throws Exception {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+        onNewThread(() -> readOnly.execute(status -> currentUrl()));
+        onNewThread(() -> readWrite.execute(status -> currentUrl()));
+
+        for (String pool : List.of("primary", "replica")) {
+            assertThat(meterRegistry.find("hikaricp.connections.max").tag("pool", pool).gauge()).isNotNull();
+            assertThat(meterRegistry.find("hikaricp.connections.acquire").tag("pool", pool).timer()).isNotNull();
+        }
+    }
+
+    private <T> T onNewThread(Supplier<T> task) throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            return executor.submit(task::get).get();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    // 트랜잭션에 묶인 커넥션이 실제로 어느 DB에 연결되었는지 확인
+    private String currentUrl() {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            return connection.getMetaData().getURL();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
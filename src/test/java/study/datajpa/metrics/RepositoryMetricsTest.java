@@ -0,0 +1,117 @@
+package study.datajpa.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 테스트에서는 메트릭 수집이 꺼져 있으므로 @AutoConfigureObservability로 켠다
+@SpringBootTest
+@AutoConfigureObservability(tracing = false)
+@Transactional
+class RepositoryMetricsTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    TeamRepository teamRepository;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    void resultSizeAndInvocationMetrics() {
+        // given
+        memberRepository.save(new Member("metric", 10));
+        memberRepository.save(new Member("metric", 20));
+        DistributionSummary before = meterRegistry.find(RepositoryResultSizeMetrics.METRIC_NAME)
+                .tags("repository", "MemberRepository", "method", "findByUsername")
+                .summary();
+        long countBefore = before == null ? 0 : before.count();
+        double totalBefore = before == null ? 0 : before.totalAmount();
+
+        // when
+        memberRepository.findByUsername("metric");
+        memberRepository.findByAge(10, PageRequest.of(0, 10));
+
+        // then
+        DistributionSummary results = meterRegistry.get(RepositoryResultSizeMetrics.METRIC_NAME)
+                .tags("repository", "MemberRepository", "method", "findByUsername")
+                .summary();
+        assertThat(results.count() - countBefore).isEqualTo(1);
+        assertThat(results.totalAmount() - totalBefore).isEqualTo(2);
+        assertThat(meterRegistry.get(RepositoryResultSizeMetrics.METRIC_NAME)
+                .tags("method", "findByAge").summary().count()).isPositive();
+
+        assertThat(meterRegistry.get("spring.data.repository.invocations")
+                .tags("repository", "MemberRepository", "method", "findByUsername")
+                .timer().count()).isPositive();
+        assertThat(meterRegistry.find("hibernate.query.executions").meters()).isNotEmpty();
+    }
+
+    @Test
+    void inheritedMethodsTaggedPerRepository() {
+        // given
+        memberRepository.save(new Member("metric", 10));
+        teamRepository.save(new Team("metricTeam"));
+        long memberBefore = findAllCount("MemberRepository");
+        long teamBefore = findAllCount("TeamRepository");
+
+        // when: findAll은 두 리포지토리가 같은 상위 인터페이스 메서드를 공유한다
+        memberRepository.findAll();
+        teamRepository.findAll();
+        teamRepository.findAll();
+
+        // then
+        assertThat(findAllCount("MemberRepository") - memberBefore).isEqualTo(1);
+        assertThat(findAllCount("TeamRepository") - teamBefore).isEqualTo(2);
+    }
+
+    @Test
+    void voidMethodsAreNotRecorded() {
+        // given
+        Member member = memberRepository.save(new Member("metric", 10));
+
+        // when
+        memberRepository.deleteAllByIdInBatch(List.of(member.getId()));
+        memberRepository.flush();
+
+        // then
+        assertThat(meterRegistry.find(RepositoryResultSizeMetrics.METRIC_NAME)
+                .tags("repository", "MemberRepository", "method", "deleteAllByIdInBatch").summary()).isNull();
+        assertThat(meterRegistry.find(RepositoryResultSizeMetrics.METRIC_NAME)
+                .tags("repository", "MemberRepository", "method", "flush").summary()).isNull();
+    }
+
+    @Test
+    void resultSize() {
+        assertThat(RepositoryResultSizeMetrics.resultSize(Member.class, null)).isZero();
+        assertThat(RepositoryResultSizeMetrics.resultSize(List.class, List.of(1, 2, 3))).isEqualTo(3);
+        assertThat(RepositoryResultSizeMetrics.resultSize(Optional.class, Optional.empty())).isZero();
+        assertThat(RepositoryResultSizeMetrics.resultSize(Long.class, 5L)).isEqualTo(-1);
+        // 단건 조회가 아닌 null은 0건으로 기록하지 않는다
+        assertThat(RepositoryResultSizeMetrics.resultSize(Long.class, null)).isEqualTo(-1);
+        assertThat(RepositoryResultSizeMetrics.resultSize(Void.class, null)).isEqualTo(-1);
+    }
+
+    private long findAllCount(String repository) {
+        DistributionSummary summary = meterRegistry.find(RepositoryResultSizeMetrics.METRIC_NAME)
+                .tags("repository", repository, "method", "findAll")
+                .summary();
+        return summary == null ? 0 : summary.count();
+    }
+}
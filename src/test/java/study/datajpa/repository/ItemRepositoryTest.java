@@ -3,8 +3,14 @@ package study.datajpa.repository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.entity.Item;
 
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
@@ -13,6 +19,9 @@ class ItemRepositoryTest {
     @Autowired
     ItemRepository itemRepository;
 
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
     @Test
     void save() {
         // 식별자 생성 전략이 @GeneratedValue가 아닐 경우
@@ -25,4 +34,23 @@ class ItemRepositoryTest {
         itemRepository.save(item);
     }
 
+    @Test
+    @Transactional
+    void upsertAll() {
+        // given: 공유 DB에 남은 행과 겹치지 않도록 이 테스트만의 식별자 사용
+        String prefix = "upsert-" + UUID.randomUUID() + "-";
+        List<UpsertOutcome> first = itemRepository.upsertAll(List.of(new Item(prefix + 1)), 10);
+
+        // when
+        // 식별자가 있는 엔티티도 select 없이 MERGE 배치 한 번으로 저장
+        List<UpsertOutcome> outcomes = itemRepository.upsertAll(
+                List.of(new Item(prefix + 1), new Item(prefix + 2), new Item(prefix + 3)), 2);
+
+        // then
+        assertThat(first).containsExactly(UpsertOutcome.INSERTED);
+        assertThat(outcomes).containsExactly(UpsertOutcome.EXISTING, UpsertOutcome.INSERTED, UpsertOutcome.INSERTED);
+        assertThat(jdbcTemplate.queryForList("select id from item where id like ?", String.class, prefix + "%"))
+                .containsExactlyInAnyOrder(prefix + 1, prefix + 2, prefix + 3);
+    }
+
 }
\ No newline at end of file
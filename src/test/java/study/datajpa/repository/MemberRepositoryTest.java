@@ -7,16 +7,28 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.NestedExceptionUtils;
 import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
 import study.datajpa.entity.Team;
+import study.datajpa.sql.StatementBudgetExceededException;
+import study.datajpa.sql.StatementRecorder;
+import study.datajpa.sql.StatementScope;
 
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -28,6 +40,9 @@ class MemberRepositoryTest {
     @Autowired
     MemberRepository memberRepository;
 
+    @Autowired
+    SpecificationPlanCache specificationPlanCache;
+
     @Autowired
     TeamRepository teamRepository;
 
@@ -395,6 +410,86 @@ class MemberRepositoryTest {
         Assertions.assertThat(result.size()).isEqualTo(1);
     }
 
+    @Test
+    void specificationPlanCache() {
+        // given
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        em.persist(new Member("m1", 0, teamA));
+        em.persist(new Member("m2", 0, teamB));
+
+        em.flush();
+        em.clear();
+        SpecPlanCacheStats before = specificationPlanCache.stats();
+
+        // when: 값만 다르고 구조가 같은 조건
+        List<Member> result1 = memberRepository.findAllCached(MemberSpec.username("m1").and(MemberSpec.teamName("teamA")));
+        List<Member> result2 = memberRepository.findAllCached(MemberSpec.username("m2").and(MemberSpec.teamName("teamB")));
+        List<Member> result3 = memberRepository.findAllCached(MemberSpec.username("m1").and(MemberSpec.teamName("teamB")));
+
+        // then
+        assertThat(result1).extracting(Member::getUsername).containsExactly("m1");
+        assertThat(result2).extracting(Member::getUsername).containsExactly("m2");
+        assertThat(result3).isEmpty();
+        assertThat(result1).extracting(Member::getId).containsExactlyElementsOf(
+                memberRepository.findAll(MemberSpec.username("m1").and(MemberSpec.teamName("teamA")))
+                        .stream().map(Member::getId).toList());
+
+        SpecPlanCacheStats after = specificationPlanCache.stats();
+        assertThat(after.getHits() + after.getMisses() - before.getHits() - before.getMisses()).isEqualTo(3);
+        assertThat(after.getHits() - before.getHits()).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("MemberSpec의 모든 조건은 Criteria(findAll)와 캐시된 JPQL(findAllCached) 결과가 같다")
+    @SuppressWarnings("unchecked")
+    void shapedSpecificationsMatchCriteria() throws Exception {
+        // given
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        em.persist(new Member("m1", 0, teamA));
+        em.persist(new Member("m2", 0, teamB));
+        em.persist(new Member("m3", 0));
+        em.persist(new Member(null, 0, teamA));
+        em.flush();
+        em.clear();
+
+        // MemberSpec에 조건을 추가하면 자동으로 비교 대상에 포함된다
+        List<String> values = Arrays.asList("m1", "teamA", "unknown", "", null);
+        List<ShapedSpecification<Member>> specs = new ArrayList<>();
+        for (Method method : MemberSpec.class.getDeclaredMethods()) {
+            if (Modifier.isStatic(method.getModifiers()) && Modifier.isPublic(method.getModifiers())
+                    && method.getReturnType() == ShapedSpecification.class
+                    && Arrays.equals(method.getParameterTypes(), new Class<?>[]{String.class})) {
+                for (String value : values) {
+                    specs.add((ShapedSpecification<Member>) method.invoke(null, value));
+                }
+            }
+        }
+        assertThat(specs).isNotEmpty();
+
+        // when & then: 단독 조건과 두 조건의 조합
+        for (ShapedSpecification<Member> spec : specs) {
+            assertSameResult(spec);
+            for (ShapedSpecification<Member> other : specs) {
+                assertSameResult(spec.and(other));
+            }
+        }
+    }
+
+    private void assertSameResult(Specification<Member> spec) {
+        assertThat(spec).isInstanceOf(ShapedSpecification.class);
+        List<Long> criteria = memberRepository.findAll(spec).stream().map(Member::getId).toList();
+        List<Long> cached = memberRepository.findAllCached(spec).stream().map(Member::getId).toList();
+        assertThat(cached)
+                .as(((ShapedSpecification<?>) spec).getShape() + " " + ((ShapedSpecification<?>) spec).getParameters())
+                .containsExactlyInAnyOrderElementsOf(criteria);
+    }
+
     @Test
     void testQueryByExample() {
         // given
@@ -463,6 +558,34 @@ class MemberRepositoryTest {
         Assertions.assertThat(result3.size()).isEqualTo(1);
     }
 
+    @Test
+    void recordProjections() {
+        // given
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+
+        Member m1 = new Member("m1", 0, teamA);
+        Member m2 = new Member("m2", 0);
+        em.persist(m1);
+        em.persist(m2);
+
+        em.flush();
+        em.clear();
+
+        // when
+        List<UsernameRecord> usernames = memberRepository.findProjectionsByUsername("m1", UsernameRecord.class);
+        List<MemberTeamRecord> records = memberRepository.findMemberTeamRecordsByUsername("m1");
+        Page<MemberTeamRecord> page = memberRepository.findMemberTeamRecords(
+                PageRequest.of(0, 10, Sort.by("username")));
+
+        // then
+        assertThat(usernames).containsExactly(new UsernameRecord("m1"));
+        assertThat(records).containsExactly(new MemberTeamRecord(m1.getId(), "m1", "teamA"));
+        assertThat(page.getContent())
+                .filteredOn(record -> record.username().equals("m2"))
+                .containsExactly(new MemberTeamRecord(m2.getId(), "m2", null));
+    }
+
     @Test
     void testNativeQuery() {
         // given
@@ -489,4 +612,334 @@ class MemberRepositoryTest {
             System.out.println("memberProjection.getTeamName() = " + memberProjection.getTeamName());
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void keysetPaging() {
+        // given
+        for (int i = 0; i < 10; i++) {
+            memberRepository.save(new Member("member" + i, 10));
+        }
+
+        // when
+        Sort sort = Sort.by(Sort.Direction.ASC, "username");
+        KeysetSlice<Member> first = memberRepository.findMemberKeyset(sort, null, 4);
+        KeysetSlice<Member> second = memberRepository.findMemberKeyset(sort, first.getNextCursor(), 4);
+        KeysetSlice<Member> third = memberRepository.findMemberKeyset(sort, second.getNextCursor(), 4);
+
+        // then
+        assertThat(first.getContent()).extracting("username")
+                .containsExactly("member0", "member1", "member2", "member3");
+        assertThat(second.getContent()).extracting("username")
+                .containsExactly("member4", "member5", "member6", "member7");
+        assertThat(third.getContent()).extracting("username")
+                .containsExactly("member8", "member9");
+        assertThat(first.isHasNext()).isTrue();
+        assertThat(third.isHasNext()).isFalse();
+        assertThat(third.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("정렬 키가 중복되어도 식별자로 이어서 조회하기 때문에 누락/중복이 없다")
+    void keysetPagingWithDuplicateKeys() {
+        // given
+        for (int i = 0; i < 5; i++) {
+            memberRepository.save(new Member("same", i));
+        }
+
+        // when
+        Sort sort = Sort.by(Sort.Direction.DESC, "username");
+        KeysetSlice<Member> first = memberRepository.findMemberKeyset(sort, null, 3);
+        KeysetSlice<Member> second = memberRepository.findMemberKeyset(sort, first.getNextCursor(), 3);
+
+        // then
+        assertThat(first.getContent()).extracting("age").containsExactly(0, 1, 2);
+        assertThat(second.getContent()).extracting("age").containsExactly(3, 4);
+    }
+
+    @Test
+    @DisplayName("정렬 키가 null인 행도 마지막에 모아서 누락/중복 없이 조회한다")
+    void keysetPagingWithNullKeys() {
+        // given
+        memberRepository.save(new Member(null, 0));
+        memberRepository.save(new Member("memberB", 1));
+        memberRepository.save(new Member(null, 2));
+        memberRepository.save(new Member("memberA", 3));
+
+        // when
+        Sort sort = Sort.by(Sort.Direction.DESC, "username");
+        KeysetSlice<Member> first = memberRepository.findMemberKeyset(sort, null, 3);
+        KeysetSlice<Member> second = memberRepository.findMemberKeyset(sort, first.getNextCursor(), 3);
+        KeysetSlice<Member> nullsFirst = memberRepository.findMemberKeyset(
+                Sort.by(Sort.Order.asc("username").nullsFirst()), null, 4);
+
+        // then
+        assertThat(first.getContent()).extracting("age").containsExactly(1, 3, 0);
+        assertThat(second.getContent()).extracting("age").containsExactly(2);
+        assertThat(second.isHasNext()).isFalse();
+        assertThat(nullsFirst.getContent()).extracting("age").containsExactly(0, 2, 3, 1);
+    }
+
+    @Test
+    void keysetPagingInvalidCursor() {
+        assertThatThrownBy(
+                () -> memberRepository.findMemberKeyset(Sort.by("username"), "not-a-cursor", 3)
+        ).isInstanceOf(InvalidDataAccessApiUsageException.class);
+    }
+
+    @Test
+    @DisplayName("다른 정렬 조건으로 발급된 커서는 거부한다")
+    void keysetPagingCursorFromDifferentSort() {
+        // given
+        for (int i = 0; i < 3; i++) {
+            memberRepository.save(new Member("member" + i, i));
+        }
+        String cursor = memberRepository.findMemberKeyset(Sort.by("username"), null, 1).getNextCursor();
+
+        // when & then: 정렬 키 개수가 같아도 속성이나 방향이 다르면 거부
+        assertThat(memberRepository.findMemberKeyset(Sort.by("username"), cursor, 1).getContent()).hasSize(1);
+        assertThatThrownBy(() -> memberRepository.findMemberKeyset(Sort.by("age"), cursor, 1))
+                .isInstanceOf(InvalidDataAccessApiUsageException.class);
+        assertThatThrownBy(() -> memberRepository.findMemberKeyset(Sort.by(Sort.Direction.DESC, "username"), cursor, 1))
+                .isInstanceOf(InvalidDataAccessApiUsageException.class);
+    }
+
+    @Test
+    void streamMemberAll() {
+        // given
+        Team teamA = new Team("teamA");
+        teamRepository.save(teamA);
+        for (int i = 0; i < 10; i++) {
+            memberRepository.save(new Member("member" + i, i, teamA));
+        }
+        em.flush();
+        em.clear();
+
+        // when
+        // fetchSize(3) 건마다 영속성 컨텍스트를 비우면서 끝까지 읽는다
+        List<String> teamNames;
+        try (Stream<Member> members = memberRepository.streamMemberAll(3)) {
+            teamNames = members.map(member -> member.getTeam().getName()).toList();
+        }
+
+        // then
+        assertThat(teamNames).hasSize(10).containsOnly("teamA");
+    }
+
+    @Test
+    void saveAllBatched() {
+        // given
+        Team teamA = new Team("teamA");
+        teamRepository.saveAllBatched(List.of(teamA), 10);
+        List<Member> members = IntStream.range(0, 25)
+                .mapToObj(i -> new Member("member" + i, i, teamA))
+                .toList();
+
+        // when
+        int saved = memberRepository.saveAllBatched(members, 10);
+
+        // then
+        assertThat(saved).isEqualTo(25);
+        assertThat(memberRepository.count()).isEqualTo(25);
+        assertThat(em.contains(members.get(0))).isFalse(); // flush 후 clear 되어 준영속 상태
+    }
+
+    @Test
+    @DisplayName("saveAll()처럼 이미 저장된 엔티티는 merge 한다")
+    void saveAllBatchedMergesDetached() {
+        // given
+        Member member = memberRepository.save(new Member("member1", 10));
+        em.flush();
+        em.clear();
+        member.setAge(20);
+
+        // when
+        int saved = memberRepository.saveAllBatched(List.of(member, new Member("member2", 30)), 10);
+
+        // then
+        assertThat(saved).isEqualTo(2);
+        assertThat(memberRepository.findById(member.getId()).orElseThrow().getAge()).isEqualTo(20);
+        assertThat(memberRepository.findByUsername("member2")).extracting("age").contains(30);
+    }
+
+    @Test
+    @DisplayName("페치 조인은 쿼리 1번, 지연 로딩은 팀 수만큼 추가 쿼리(N+1)")
+    void statementCountOfFetchJoin() {
+        // given
+        for (int i = 0; i < 3; i++) {
+            Team team = new Team("team" + i);
+            teamRepository.save(team);
+            memberRepository.save(new Member("member" + i, 10, team));
+        }
+        em.flush();
+        em.clear();
+
+        // when
+        try (StatementScope scope = StatementRecorder.start()) {
+            memberRepository.findMemberFetchJoin()
+                    .forEach(member -> member.getTeam().getName());
+
+            // then
+            assertThat(scope.getCount()).isEqualTo(1);
+        }
+
+        em.clear();
+
+        // when
+        try (StatementScope scope = StatementRecorder.start()) {
+            memberRepository.findAll()
+                    .forEach(member -> member.getTeam().getName());
+
+            // then
+            assertThat(scope.getCount()).isEqualTo(4);
+            assertThat(scope.getNPlusOneSuspects(3)).hasSize(1);
+        }
+    }
+
+    @Test
+    void statementBudgetExceeded() {
+        memberRepository.save(new Member("member1", 10));
+        em.flush();
+
+        try (StatementScope scope = StatementRecorder.start(1, true)) {
+            memberRepository.findMembers("member1");
+
+            assertThatThrownBy(() -> memberRepository.findMembers("member1"))
+                    .satisfies(e -> assertThat(NestedExceptionUtils.getMostSpecificCause(e))
+                            .isInstanceOf(StatementBudgetExceededException.class));
+        }
+    }
+
+    @Test
+    @DisplayName("CACHED 모드는 첫 페이지의 count 결과를 뒤쪽 페이지에서 재사용한다")
+    void pageWithCachedCount() {
+        // given
+        for (int i = 1; i <= 5; i++) {
+            memberRepository.save(new Member("member" + i, 77));
+        }
+        em.flush();
+
+        // when
+        Sort sort = Sort.by("username");
+        CountedPage<Member> first = memberRepository.findByAge(77, PageRequest.of(0, 2, sort), CountMode.CACHED);
+
+        memberRepository.save(new Member("member6", 77));
+        em.flush();
+
+        CountedPage<Member> second;
+        try (StatementScope scope = StatementRecorder.start()) {
+            second = memberRepository.findByAge(77, PageRequest.of(1, 2, sort), CountMode.CACHED);
+            assertThat(scope.getCount()).isEqualTo(1); // count 쿼리 생략
+        }
+        CountedPage<Member> last = memberRepository.findByAge(77, PageRequest.of(2, 2, sort), CountMode.CACHED);
+
+        // then
+        assertThat(first.getTotalElements()).isEqualTo(5);
+        assertThat(first.isTotalExact()).isTrue();
+        assertThat(second.getTotalElements()).isEqualTo(5);
+        assertThat(second.isTotalExact()).isFalse();
+        // 마지막 페이지는 조회 결과만으로 정확한 전체 건수를 안다
+        assertThat(last.getTotalElements()).isEqualTo(6);
+        assertThat(last.isTotalExact()).isTrue();
+    }
+
+    @Test
+    void pageWithEstimatedCount() {
+        // given
+        for (int i = 1; i <= 5; i++) {
+            memberRepository.save(new Member("member" + i, 10));
+        }
+        em.flush();
+
+        // when
+        CountedPage<MemberProjection> page = memberRepository.findByNativeProjection(PageRequest.of(0, 2), CountMode.ESTIMATED);
+
+        // then
+        assertThat(page.getContent()).hasSize(2);
+        assertThat(page.isTotalExact()).isFalse();
+        assertThat(page.hasNext()).isTrue();
+    }
+
+    @Test
+    @DisplayName("추정 건수를 구할 수 없는 조회에 ESTIMATED를 요청하면 거부한다")
+    void estimatedCountUnsupported() {
+        assertThatThrownBy(() -> memberRepository.findByAge(10, PageRequest.of(0, 2), CountMode.ESTIMATED))
+                .isInstanceOf(InvalidDataAccessApiUsageException.class);
+    }
+
+    @Test
+    @DisplayName("네이티브 Projection 페이징은 허용한 속성만 컬럼으로 바꿔서 정렬한다")
+    void nativeProjectionSort() {
+        // given
+        Team teamA = teamRepository.save(new Team("teamA"));
+        Team teamB = teamRepository.save(new Team("teamB"));
+        memberRepository.save(new Member("member1", 10, teamA));
+        memberRepository.save(new Member("member2", 10, teamB));
+        em.flush();
+
+        // when
+        CountedPage<MemberProjection> page = memberRepository.findByNativeProjection(
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "teamName")), CountMode.EXACT);
+
+        // then
+        assertThat(page.getContent()).extracting("teamName").containsSubsequence("teamB", "teamA");
+        assertThatThrownBy(() -> memberRepository.findByNativeProjection(
+                PageRequest.of(0, 10, Sort.by("age")), CountMode.EXACT))
+                .isInstanceOf(InvalidDataAccessApiUsageException.class);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("비동기 조회는 각자 별도 스레드/트랜잭션에서 실행되므로 커밋된 데이터만 보인다")
+    void asyncQueries() {
+        // given
+        Team team = teamRepository.save(new Team("asyncTeam"));
+        Member member = memberRepository.save(new Member("asyncMember", 10, team));
+
+        try {
+            // when
+            CompletableFuture<List<Member>> members = memberRepository.findAsyncByUsername("asyncMember");
+            CompletableFuture<List<MemberDto>> memberDtos = memberRepository.findMemberDtoAsync();
+            CompletableFuture<List<Team>> teams = teamRepository.findAllAsync();
+            CompletableFuture.allOf(members, memberDtos, teams).join();
+
+            // then
+            assertThat(members.join()).extracting("username").containsExactly("asyncMember");
+            assertThat(memberDtos.join()).extracting("teamName").contains("asyncTeam");
+            assertThat(teams.join()).extracting("name").contains("asyncTeam");
+        } finally {
+            // 공유 DB이므로 이 테스트가 저장한 행만 지운다
+            memberRepository.deleteAllByIdInBatch(List.of(member.getId()));
+            teamRepository.deleteAllByIdInBatch(List.of(team.getId()));
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("in 절 값이 많으면 나눠서 병렬로 조회한 뒤 합친다")
+    void findByNamesChunked() {
+        // given
+        int count = 3000;
+        List<Member> members = IntStream.range(0, count)
+                .mapToObj(i -> new Member("name" + i, i))
+                .toList();
+        memberRepository.saveAllBatched(members, 100);
+
+        try {
+            List<String> names = new ArrayList<>(members.stream().map(Member::getUsername).toList());
+            names.add("unknown");
+            names.add("name0"); // 중복
+
+            // when
+            List<Member> chunked = memberRepository.findByNamesChunked(names);
+            List<Member> small = memberRepository.findByNamesChunked(List.of("name1", "name2", "name3"));
+
+            // then
+            assertThat(chunked).hasSize(count);
+            assertThat(chunked).extracting(Member::getId).doesNotHaveDuplicates();
+            assertThat(small).extracting(Member::getUsername).containsExactlyInAnyOrder("name1", "name2", "name3");
+        } finally {
+            // 공유 DB이므로 이 테스트가 저장한 행만 지운다
+            memberRepository.deleteAllByIdInBatch(members.stream().map(Member::getId).toList());
+        }
+    }
+}
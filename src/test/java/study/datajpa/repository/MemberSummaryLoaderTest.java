@@ -0,0 +1,80 @@
+package study.datajpa.repository;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import study.datajpa.entity.Member;
+import study.datajpa.sql.StatementRecorder;
+import study.datajpa.sql.StatementScope;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class MemberSummaryLoaderTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    MemberSummaryLoader memberSummaryLoader;
+
+    @Autowired
+    ConversionService mvcConversionService;
+
+    @Autowired
+    EntityManager em;
+
+    // 요청 스코프 빈을 사용하기 위해 가짜 요청을 바인딩
+    @BeforeEach
+    void bindRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @AfterEach
+    void resetRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void identityMap() {
+        // given
+        Member member = memberRepository.save(new Member("member1", 10));
+        em.flush();
+        em.clear();
+        Long unknownId = member.getId() + 1000;
+
+        // when
+        try (StatementScope scope = StatementRecorder.start()) {
+            assertThat(memberSummaryLoader.get(member.getId())).contains(new MemberSummary(member.getId(), "member1"));
+            assertThat(memberSummaryLoader.get(member.getId())).isPresent();
+            assertThat(memberSummaryLoader.get(unknownId)).isEmpty();
+            assertThat(memberSummaryLoader.get(unknownId)).isEmpty();
+
+            // then: 식별자마다 한 번씩만 조회하고 엔티티는 영속성 컨텍스트에 올라가지 않는다
+            assertThat(scope.getCount()).isEqualTo(2);
+            assertThat(em.contains(member)).isFalse();
+        }
+    }
+
+    @Test
+    void converter() {
+        // given
+        Member member = memberRepository.save(new Member("member1", 10));
+        em.flush();
+
+        // when
+        MemberSummary summary = mvcConversionService.convert(member.getId().toString(), MemberSummary.class);
+
+        // then
+        assertThat(summary).isEqualTo(new MemberSummary(member.getId(), "member1"));
+    }
+}
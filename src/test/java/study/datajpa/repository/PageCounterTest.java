@@ -0,0 +1,58 @@
+package study.datajpa.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PageCounterTest {
+
+    @Test
+    @DisplayName("캐시가 가득 차면 가장 오래 사용하지 않은 키만 버린다")
+    void evictLeastRecentlyUsed() {
+        PageCounter pageCounter = new PageCounter(Duration.ofMinutes(1), 2);
+        AtomicInteger counts = new AtomicInteger();
+
+        pageCounter.cachedCount("a", () -> counts.incrementAndGet());
+        pageCounter.cachedCount("b", () -> counts.incrementAndGet());
+        pageCounter.cachedCount("a", () -> counts.incrementAndGet()); // a를 최근 사용으로
+        pageCounter.cachedCount("c", () -> counts.incrementAndGet()); // b가 밀려난다
+        assertThat(counts.get()).isEqualTo(3);
+
+        pageCounter.cachedCount("a", () -> counts.incrementAndGet());
+        assertThat(counts.get()).isEqualTo(3);
+        pageCounter.cachedCount("b", () -> counts.incrementAndGet());
+        assertThat(counts.get()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("캐시된 건수가 이미 조회한 건수보다 작으면 다음 페이지가 남도록 보정한다")
+    void cachedCountFloor() {
+        PageCounter pageCounter = new PageCounter(Duration.ofMinutes(1), 10);
+        pageCounter.cachedCount("key", () -> 3);
+
+        // 2페이지(offset 4)에서 3건(pageSize + 1)을 조회
+        CountedPage<String> page = pageCounter.page(List.of("e", "f", "g"), PageRequest.of(2, 2),
+                CountMode.CACHED, "key", () -> 100, null);
+
+        assertThat(page.getTotalElements()).isEqualTo(7);
+        assertThat(page.hasNext()).isTrue();
+        assertThat(page.isTotalExact()).isFalse();
+    }
+
+    @Test
+    @DisplayName("추정 건수 공급자가 없으면 ESTIMATED를 CACHED로 바꾸지 않고 거부한다")
+    void estimatedWithoutEstimate() {
+        PageCounter pageCounter = new PageCounter(Duration.ofMinutes(1), 10);
+
+        assertThatThrownBy(() -> pageCounter.page(List.of("a", "b", "c"), PageRequest.of(0, 2),
+                CountMode.ESTIMATED, "key", () -> 100, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,83 @@
+package study.datajpa.repository;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.sql.StatementRecorder;
+import study.datajpa.sql.StatementScope;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class TeamBatchLoaderTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    TeamRepository teamRepository;
+
+    @Autowired
+    TeamBatchLoader teamBatchLoader;
+
+    @Autowired
+    EntityManager em;
+
+    // 요청 스코프 빈을 사용하기 위해 가짜 요청을 바인딩
+    @BeforeEach
+    void bindRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @AfterEach
+    void resetRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void loadTeamsWithOneQuery() {
+        // given
+        List<Long> memberIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Team team = teamRepository.save(new Team("team" + i));
+            memberIds.add(memberRepository.save(new Member("member" + i, 10, team)).getId());
+        }
+        memberIds.add(memberRepository.save(new Member("noTeam", 10)).getId());
+        em.flush();
+        em.clear();
+
+        // 공유 DB에 남아 있는 다른 회원이 섞이지 않도록 이 테스트에서 저장한 회원만 조회
+        List<Member> members = memberRepository.findAllById(memberIds);
+
+        // when
+        try (StatementScope scope = StatementRecorder.start()) {
+            teamBatchLoader.load(members);
+            List<String> teamNames = members.stream()
+                    .map(teamBatchLoader::getTeamName)
+                    .toList();
+
+            // then
+            assertThat(scope.getCount()).isEqualTo(1);
+            assertThat(teamNames).containsExactlyInAnyOrder("team0", "team1", "team2", null);
+        }
+
+        // 같은 요청에서 다시 불러오면 쿼리를 실행하지 않는다
+        try (StatementScope scope = StatementRecorder.start()) {
+            teamBatchLoader.load(members);
+            assertThat(scope.getCount()).isZero();
+        }
+    }
+}
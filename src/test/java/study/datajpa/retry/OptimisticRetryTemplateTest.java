@@ -0,0 +1,125 @@
+package study.datajpa.retry;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// 재시도마다 새 트랜잭션에서 커밋되므로 테스트 트랜잭션을 쓰지 않고 직접 정리한다
+@SpringBootTest
+class OptimisticRetryTemplateTest {
+
+    @Autowired
+    OptimisticRetryTemplate retryTemplate;
+
+    @Autowired
+    OptimisticRetryProperties properties;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    // 공유 DB이므로 이 테스트가 저장한 행만 지운다
+    private final List<Long> memberIds = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAllByIdInBatch(memberIds);
+    }
+
+    @Test
+    void versionIncrementsOnUpdate() {
+        Member member = save(new Member("member1", 10));
+        assertThat(member.getVersion()).isZero();
+
+        retryTemplate.executeWithoutResult(status -> memberRepository.findById(member.getId()).orElseThrow().setAge(20));
+
+        Member updated = memberRepository.findById(member.getId()).orElseThrow();
+        assertThat(updated.getAge()).isEqualTo(20);
+        assertThat(updated.getVersion()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentUpdatesWithRetry() throws Exception {
+        Long memberId = save(new Member("member1", 0)).getId();
+        int threads = 8;
+        int updatesPerThread = 10;
+        int maxAttempts = properties.getMaxAttempts();
+        // 충돌이 많은 상황이라 재시도 한도를 넉넉하게
+        properties.setMaxAttempts(1000);
+        OptimisticRetryStats before = retryTemplate.stats();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(CompletableFuture.runAsync(() -> {
+                    for (int j = 0; j < updatesPerThread; j++) {
+                        retryTemplate.executeWithoutResult(status -> {
+                            Member member = memberRepository.findById(memberId).orElseThrow();
+                            member.setAge(member.getAge() + 1);
+                        });
+                    }
+                }, executor));
+            }
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get();
+        } finally {
+            executor.shutdown();
+            properties.setMaxAttempts(maxAttempts);
+        }
+
+        // 충돌한 갱신은 재시도되어 유실되지 않는다
+        Member member = memberRepository.findById(memberId).orElseThrow();
+        assertThat(member.getAge()).isEqualTo(threads * updatesPerThread);
+        assertThat(member.getVersion()).isEqualTo(threads * updatesPerThread);
+
+        OptimisticRetryStats after = retryTemplate.stats();
+        assertThat(after.getAttempts() - before.getAttempts())
+                .isEqualTo(threads * updatesPerThread + after.getRetries() - before.getRetries());
+        assertThat(after.getExhausted()).isEqualTo(before.getExhausted());
+    }
+
+    @Test
+    void giveUpAfterMaxAttempts() {
+        AtomicInteger calls = new AtomicInteger();
+        OptimisticRetryStats before = retryTemplate.stats();
+
+        assertThatThrownBy(() -> retryTemplate.executeWithoutResult(status -> {
+            calls.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException(Member.class, 1L);
+        })).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+
+        assertThat(calls.get()).isEqualTo(properties.getMaxAttempts());
+        assertThat(retryTemplate.stats().getExhausted()).isEqualTo(before.getExhausted() + 1);
+    }
+
+    @Test
+    void doNotRetryOtherExceptions() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThatThrownBy(() -> retryTemplate.executeWithoutResult(status -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("실패");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    private Member save(Member member) {
+        Member saved = memberRepository.save(member);
+        memberIds.add(saved.getId());
+        return saved;
+    }
+}
@@ -0,0 +1,215 @@
+package study.datajpa.search;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// 색인은 커밋 후에 반영되므로 테스트 트랜잭션을 쓰지 않고 저장한 회원만 직접 정리한다
+@SpringBootTest
+class UsernameSearchTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    UsernameTrigramIndex usernameTrigramIndex;
+
+    @Autowired
+    UsernameIndexLoader usernameIndexLoader;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    EntityManager em;
+
+    private final List<Long> savedIds = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAllByIdInBatch(savedIds);
+    }
+
+    @Test
+    void trigramIndex() {
+        UsernameTrigramIndex index = new UsernameTrigramIndex();
+        index.put(1L, "HelloWorld");
+        index.put(2L, "worldwide");
+        index.put(3L, "ab");
+        index.put(4L, "dlrow");
+
+        assertThat(index.search("WORLD", 10)).containsExactly(1L, 2L);
+        assertThat(index.search("lowo", 10)).containsExactly(1L);
+        assertThat(index.search("xyz", 10)).isEmpty();
+        // limit개를 찾으면 멈추고, 마지막 식별자 다음부터 이어서 찾는다
+        assertThat(index.search("world", 1)).containsExactly(1L);
+        assertThat(index.search("world", 1L, 1)).containsExactly(2L);
+        assertThat(index.search("world", 2L, 1)).isEmpty();
+        // 검색어의 trigram을 모두 가진 이름이 없으면 빈 결과
+        assertThat(index.search("rowo", 10)).isEmpty();
+        // 3글자 미만은 trigram으로 좁힐 수 없으므로 받지 않는다
+        assertThatThrownBy(() -> index.search("ab", 10)).isInstanceOf(IllegalArgumentException.class);
+
+        // 이름이 바뀌면 이전 trigram은 지워진다
+        index.put(1L, "HelloJpa");
+        assertThat(index.search("world", 10)).containsExactly(2L);
+        index.remove(2L);
+        assertThat(index.search("world", 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void searchByUsername() {
+        // given
+        Member alpha = save("searchAlpha");
+        Member beta = save("betaSearch");
+        save("gamma");
+
+        // when & then: 부분 문자열, 대소문자 무시
+        assertThat(memberRepository.searchByUsername("SEARCH", 10))
+                .extracting(Member::getId)
+                .containsExactly(alpha.getId(), beta.getId());
+        assertThat(memberRepository.searchByUsername("chAlp", 10))
+                .extracting(Member::getUsername)
+                .containsExactly("searchAlpha");
+        assertThatThrownBy(() -> memberRepository.searchByUsername("se", 10))
+                .isInstanceOf(InvalidDataAccessApiUsageException.class);
+
+        // 접두사 검색은 DB 인덱스로 처리 (대소문자 구분)
+        assertThat(memberRepository.findByUsernameStartingWith("searchAl", PageRequest.of(0, 10, Sort.by("username"))))
+                .extracting(Member::getUsername)
+                .containsExactly("searchAlpha");
+    }
+
+    @Test
+    void limitCountsOnlyVerifiedRows() {
+        // given: 앞쪽 두 명은 벌크 연산으로 이름이 바뀌어 색인과 DB가 다르다
+        Member stale1 = save("limitTarget1");
+        Member stale2 = save("limitTarget2");
+        Member match = save("limitTarget3");
+        rename(stale1.getId(), "renamed1");
+        rename(stale2.getId(), "renamed2");
+
+        // when
+        List<Member> result = memberRepository.searchByUsername("limitTarget", 1);
+
+        // then: 색인 후보 앞쪽이 DB 확인에서 빠져도 다음 후보를 이어서 확인한다
+        assertThat(result).extracting(Member::getId).containsExactly(match.getId());
+        // 검색은 후보를 거르기만 하고 색인은 재구성할 때 고친다
+        assertThat(usernameTrigramIndex.search("limittarget", 10))
+                .containsExactly(stale1.getId(), stale2.getId(), match.getId());
+        usernameIndexLoader.rebuild();
+        assertThat(usernameTrigramIndex.search("limittarget", 10)).containsExactly(match.getId());
+    }
+
+    @Test
+    void rebuildPicksUpBulkRenames() {
+        // given
+        Member member = save("bulkBefore");
+
+        // when: 벌크 연산으로 바꾼 이름은 색인에 반영되지 않는다
+        rename(member.getId(), "bulkAfterRename");
+
+        // then
+        assertThat(memberRepository.searchByUsername("afterRename", 10)).isEmpty();
+
+        // when: 벌크 작업이 끝난 뒤 재구성
+        usernameIndexLoader.rebuild();
+
+        // then
+        assertThat(memberRepository.searchByUsername("afterRename", 10))
+                .extracting(Member::getId)
+                .containsExactly(member.getId());
+        assertThat(usernameTrigramIndex.search("bulkBefore", 10)).doesNotContain(member.getId());
+    }
+
+    @Test
+    void indexFollowsCommittedChanges() {
+        // given
+        Member member = save("before");
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        // when: 커밋된 변경은 반영
+        tx.executeWithoutResult(status -> memberRepository.findById(member.getId()).orElseThrow().setUsername("afterName"));
+
+        // then
+        assertThat(memberRepository.searchByUsername("before", 10)).extracting(Member::getId)
+                .doesNotContain(member.getId());
+        assertThat(memberRepository.searchByUsername("afterNam", 10)).extracting(Member::getId)
+                .containsExactly(member.getId());
+
+        // when: 롤백된 변경은 반영하지 않는다
+        tx.executeWithoutResult(status -> {
+            memberRepository.findById(member.getId()).orElseThrow().setUsername("rolledBack");
+            memberRepository.flush();
+            status.setRollbackOnly();
+        });
+
+        // then
+        assertThat(memberRepository.searchByUsername("rolledBack", 10)).extracting(Member::getId)
+                .doesNotContain(member.getId());
+        assertThat(memberRepository.searchByUsername("afterNam", 10)).hasSize(1);
+
+        // when: 벌크 삭제는 색인에 반영되지 않지만 검색 시 DB로 확인해서 거른다
+        memberRepository.deleteAllByIdInBatch(List.of(member.getId()));
+
+        // then
+        assertThat(memberRepository.searchByUsername("afterNam", 10)).isEmpty();
+        assertThat(usernameTrigramIndex.search("afterNam", 10)).contains(member.getId());
+
+        // when: 재구성하면 DB에 없는 식별자를 색인에서 지운다
+        usernameIndexLoader.rebuild();
+
+        // then
+        assertThat(usernameTrigramIndex.search("afterNam", 10)).doesNotContain(member.getId());
+    }
+
+    @Test
+    void searchInsideTransactionDoesNotIndexUncommittedNames() {
+        // given
+        Member member = save("committedName");
+
+        // when: 커밋 전 이름으로 검색하고 롤백
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            memberRepository.findById(member.getId()).orElseThrow().setUsername("renamedInTx");
+            memberRepository.flush();
+            assertThat(memberRepository.searchByUsername("committedName", 10)).isEmpty();
+            status.setRollbackOnly();
+        });
+
+        // then: 색인은 커밋된 이름 그대로다
+        assertThat(memberRepository.searchByUsername("committedName", 10))
+                .extracting(Member::getId)
+                .containsExactly(member.getId());
+    }
+
+    private Member save(String username) {
+        Member member = memberRepository.save(new Member(username, 10));
+        savedIds.add(member.getId());
+        return member;
+    }
+
+    // 엔티티 리스너를 거치지 않는 벌크 업데이트
+    private void rename(Long id, String username) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                em.createQuery("update Member m set m.username = :username where m.id = :id")
+                        .setParameter("username", username)
+                        .setParameter("id", id)
+                        .executeUpdate());
+    }
+}
@@ -0,0 +1,118 @@
+package study.datajpa.sql;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlFingerprintTest {
+
+    @Test
+    void stripLiterals() {
+        assertThat(SqlFingerprint.of("select * from member where username = 'kim' and age > 10"))
+                .isEqualTo("select * from member where username = ? and age > ?");
+        assertThat(SqlFingerprint.of("SELECT * FROM member WHERE username = 'o''brien' AND age = -1.5"))
+                .isEqualTo("select * from member where username = ? and age = -?");
+    }
+
+    @Test
+    void keepIdentifiersWithDigits() {
+        assertThat(SqlFingerprint.of("select m1_0.member_id from member m1_0 offset 20 rows fetch first 10 rows only"))
+                .isEqualTo("select m1_0.member_id from member m1_0 offset ? rows fetch first ? rows only");
+    }
+
+    @Test
+    void collapseInListsAndWhitespace() {
+        String padded = SqlFingerprint.of("select * from member m\n  where m.username in (?, ?, ?, ?)");
+        String literal = SqlFingerprint.of("select * from member m where m.username in ('a','b')");
+        String single = SqlFingerprint.of("select * from member m where m.username in( ? )");
+
+        assertThat(padded).isEqualTo("select * from member m where m.username in (?+)");
+        assertThat(literal).isEqualTo(padded);
+        assertThat(single).isEqualTo(padded);
+    }
+
+    @Test
+    void stripComments() {
+        assertThat(SqlFingerprint.of("/* select Member */ select * from member -- comment\nwhere age = 1"))
+                .isEqualTo("select * from member where age = ?");
+    }
+
+    @Test
+    void registryIsBounded() {
+        SqlFingerprintProperties properties = new SqlFingerprintProperties();
+        properties.setMaxFingerprints(2);
+        SqlFingerprintRegistry registry = new SqlFingerprintRegistry(properties);
+
+        registry.recordExecution("select * from member where age = 1", 2_000_000, false);
+        registry.recordExecution("select * from member where age = 2", 4_000_000, false);
+        registry.addRows("select * from member where age = 2", 3);
+        registry.recordExecution("select * from team", 1_000_000, false);
+        registry.recordExecution("select * from item", 500_000, true);
+
+        List<SqlFingerprintReport> top = registry.top(10, SqlFingerprintRegistry.SortBy.TOTAL);
+        assertThat(top).extracting(SqlFingerprintReport::getFingerprint)
+                .containsExactly("select * from member where age = ?", "select * from team", SqlFingerprintRegistry.OTHER);
+
+        SqlFingerprintReport member = top.get(0);
+        assertThat(member.getCount()).isEqualTo(2);
+        assertThat(member.getRows()).isEqualTo(3);
+        assertThat(member.getTotalMillis()).isEqualTo(6.0);
+        assertThat(member.getMaxMillis()).isEqualTo(4.0);
+        assertThat(member.getP99Millis()).isGreaterThanOrEqualTo(4.0);
+        assertThat(top.get(2).getErrors()).isEqualTo(1);
+    }
+
+    @Test
+    void statementCacheIsBounded() {
+        SqlFingerprintProperties properties = new SqlFingerprintProperties();
+        properties.setMaxCachedStatements(2);
+        properties.setMaxCachedStatementChars(100);
+        SqlFingerprintRegistry registry = new SqlFingerprintRegistry(properties);
+
+        // 자주 쓰는 원문은 한 번 쓰고 마는 리터럴 원문보다 오래 남는다
+        String hot = "select * from member where age = ?";
+        registry.recordExecution(hot, 1_000_000, false);
+        for (int i = 0; i < 100; i++) {
+            registry.recordExecution(hot, 1_000_000, false);
+            registry.recordExecution("select * from member where age = " + i, 1_000_000, false);
+            assertThat(registry.cachedStatementCount()).isLessThanOrEqualTo(2);
+        }
+        assertThat(registry.isCached(hot)).isTrue();
+
+        // 글자 수 상한을 넘는 원문은 캐시하지 않고 통계는 그대로 모은다
+        String longSql = "select * from member where username in (" + "?, ".repeat(50) + "?)";
+        registry.recordExecution(longSql, 1_000_000, false);
+        assertThat(registry.cachedStatementCount()).isLessThanOrEqualTo(2);
+        assertThat(registry.top(10, SqlFingerprintRegistry.SortBy.COUNT))
+                .extracting(SqlFingerprintReport::getFingerprint)
+                .containsExactly("select * from member where age = ?", "select * from member where username in (?+)");
+        assertThat(registry.top(1, SqlFingerprintRegistry.SortBy.COUNT).get(0).getCount()).isEqualTo(201);
+    }
+
+    @Test
+    void concurrentRegistrationRespectsMaxFingerprints() throws InterruptedException {
+        SqlFingerprintProperties properties = new SqlFingerprintProperties();
+        properties.setMaxFingerprints(10);
+        SqlFingerprintRegistry registry = new SqlFingerprintRegistry(properties);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int thread = t;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 50; i++) {
+                    registry.recordExecution("select * from table" + thread + "_" + i, 1_000, false);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // fingerprint 10개와 (other) 하나
+        assertThat(registry.top(100, SqlFingerprintRegistry.SortBy.COUNT)).hasSize(11);
+    }
+}